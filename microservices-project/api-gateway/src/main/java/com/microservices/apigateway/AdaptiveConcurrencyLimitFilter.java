@@ -0,0 +1,224 @@
+/*
+A classe `AdaptiveConcurrencyLimitFilter` é um `GlobalFilter` que limita quantas requisições cada rota
+`lb://` pode ter em andamento ao mesmo tempo no serviço de destino (bulkhead). O limite não é fixo: ele
+se ajusta sozinho pela latência observada, no estilo do algoritmo gradient (como o `Gradient2Limit` da
+biblioteca concurrency-limits da Netflix).
+
+1. Cada rota tem o seu `RouteLimiter`, com o número de requisições em andamento (`inFlight`) e o limite
+atual (`limit`). Uma requisição só segue para o serviço se `inFlight` estiver abaixo do limite. Caso
+contrário, o gateway responde na hora com 503 (Service Unavailable) e o cabeçalho `Retry-After`, antes
+que uma fila se forme no currency-exchange ou no currency-conversion.
+
+2. Ao fim de cada requisição, o tempo de resposta (RTT) entra no ajuste do limite:
+    - `longRtt` é a média móvel exponencial dos RTTs (janela `long-window`), ou seja, a latência normal;
+    - o gradiente é `tolerance * longRtt / rtt`, entre 0.5 e 1.0: enquanto o RTT está perto do normal, ele
+    fica em 1.0 e o limite cresce (`limit + sqrt(limit)`); quando o RTT sobe (fila no serviço), o limite é
+    reduzido proporcionalmente;
+    - respostas 5xx e erros de conexão reduzem o limite pelo fator `backoff-ratio`;
+    - o limite não cresce quando a rota usa menos da metade dele, e fica sempre entre `min-limit` e
+    `max-limit`. A mudança é suavizada por `smoothing`.
+
+3. A admissão é lock-free (`compareAndSet` no `inFlight`). O ajuste do limite usa um `tryLock`: se outra
+thread já estiver ajustando, a amostra é descartada, então as threads do event loop nunca esperam.
+
+4. As métricas `gateway.concurrency.limit` e `gateway.concurrency.inflight` (gauges) e
+`gateway.concurrency.rejected` (contador) são registradas por rota, com o serviço de destino na tag
+`service`.
+
+O filtro roda logo antes do `ReactiveLoadBalancerClientFilter`, depois dos filtros das rotas, então
+respostas servidas pelo cache do gateway e requisições recusadas pelo rate limiter não ocupam vagas.
+*/
+
+package com.microservices.apigateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class AdaptiveConcurrencyLimitFilter implements GlobalFilter, Ordered {
+    private final Map<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int longWindow;
+    private final String retryAfter;
+
+    public AdaptiveConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                          @Value("${gateway.concurrency-limit.initial-limit:20}") int initialLimit,
+                                          @Value("${gateway.concurrency-limit.min-limit:5}") int minLimit,
+                                          @Value("${gateway.concurrency-limit.max-limit:200}") int maxLimit,
+                                          @Value("${gateway.concurrency-limit.tolerance:1.5}") double tolerance,
+                                          @Value("${gateway.concurrency-limit.smoothing:0.2}") double smoothing,
+                                          @Value("${gateway.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                          @Value("${gateway.concurrency-limit.long-window:600}") int longWindow,
+                                          @Value("${gateway.concurrency-limit.retry-after:PT1S}") Duration retryAfter) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.longWindow = longWindow;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+
+        if (route == null || !"lb".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        RouteLimiter limiter = limiters.computeIfAbsent(route.getId(), id -> new RouteLimiter(id, route.getUri().getHost()));
+
+        if (!limiter.tryAcquire()) {
+            limiter.rejected.increment();
+
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    int inFlight = limiter.release();
+
+                    // Cancelamento é o cliente desistindo, e não diz nada sobre a latência do serviço
+                    if (signal != SignalType.CANCEL) {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+
+                        limiter.onSample(System.nanoTime() - start, inFlight + 1, dropped);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    /*
+    O `RouteLimiter` guarda o estado do limite de uma rota. `limit` é lido sem lock na admissão e só é
+    alterado por `onSample`, dentro do `tryLock`, junto com `longRtt`.
+    */
+    final class RouteLimiter {
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Counter rejected;
+
+        private volatile double limit = initialLimit;
+
+        private double longRtt;
+
+        RouteLimiter(String routeId, String service) {
+            Gauge.builder("gateway.concurrency.limit", this, limiter -> limiter.limit)
+                    .tag("route", routeId)
+                    .tag("service", String.valueOf(service))
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.inflight", inFlight, AtomicInteger::get)
+                    .tag("route", routeId)
+                    .tag("service", String.valueOf(service))
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("gateway.concurrency.rejected")
+                    .description("Requests shed with 503 because the route was at its concurrency limit")
+                    .tag("route", routeId)
+                    .tag("service", String.valueOf(service))
+                    .register(meterRegistry);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+
+                if (current >= (int) limit) {
+                    return false;
+                }
+
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        int release() {
+            return inFlight.decrementAndGet();
+        }
+
+        double limit() {
+            return limit;
+        }
+
+        void onSample(long rttNanos, int inFlightAtEnd, boolean dropped) {
+            if (!lock.tryLock()) {
+                return;
+            }
+
+            try {
+                double current = limit;
+                double estimate;
+
+                if (dropped) {
+                    estimate = current * backoffRatio;
+                } else {
+                    double rtt = Math.max(1, rttNanos);
+                    longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / longWindow;
+
+                    // Depois de um período lento, a média longa volta mais rápido ao normal
+                    if (longRtt / rtt > 2) {
+                        longRtt *= 0.95;
+                    }
+
+                    // Rota usando menos da metade do limite: não há informação para aumentá-lo
+                    if (inFlightAtEnd < current / 2) {
+                        return;
+                    }
+
+                    double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+                    estimate = current * gradient + Math.sqrt(current);
+                }
+
+                double smoothed = current * (1 - smoothing) + estimate * smoothing;
+                limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -18,11 +18,23 @@ define uma rota específica com base no caminho da URL.
    - `addRequestParameter("Param", "MyValue")` adiciona um parâmetro de consulta à solicitação com o nome "Param" e o valor "MyValue".
    A rota é direcionada para a URI `http://httpbin.org:80`, que é o destino final da rota.
 
-6. As próximas três rotas são definidas com os caminhos `/currency-exchange/**`, `/currency-conversion/**` e `/currency-conversion-feign/**`. Essas rotas são direcionadas para os serviços de destino com balanceamento de carga.
+6. As próximas quatro rotas são definidas com os caminhos `/currency-exchange/**`, `/currency-conversion/**`, `/currency-conversion-feign/**` e `/currency-conversion-reactive/**`. Essas rotas são direcionadas para os serviços de destino com balanceamento de carga.
    - A rota `/currency-exchange/**` é direcionada para o serviço `currency-exchange`.
-   - As rotas `/currency-conversion/**` e `/currency-conversion-feign/**` são direcionadas para o serviço `currency-conversion`.
+   - As rotas `/currency-conversion/**`, `/currency-conversion-feign/**` e `/currency-conversion-reactive/**` são direcionadas para o serviço `currency-conversion`.
 
-7. Por fim, o método `build()` é chamado para criar e retornar o objeto `RouteLocator` com as rotas configuradas.
+7. As rotas dos serviços de câmbio e conversão usam o filtro `ResponseCacheGatewayFilterFactory`, que guarda
+as respostas das requisições GET por um tempo de vida definido por rota (`gateway.response-cache.ttl.*`).
+
+8. As mesmas rotas usam o filtro `RequestRateLimiter` com o `TokenBucketRateLimiter` e o `ClientKeyResolver`:
+cada cliente e cada rota têm um limite de requisições por segundo, e o excesso recebe 429 (Too Many Requests)
+no próprio gateway, sem chegar aos serviços. O `requestRateLimiter` é declarado antes do filtro de cache, então
+o limite vale também para as respostas servidas pelo cache do gateway.
+
+Além disso, todas as rotas `lb://` passam pelo `AdaptiveConcurrencyLimitFilter` (um `GlobalFilter`), que
+limita as requisições em andamento por rota com um limite ajustado pela latência e responde 503 com
+`Retry-After` quando o serviço está saturado.
+
+9. Por fim, o método `build()` é chamado para criar e retornar o objeto `RouteLocator` com as rotas configuradas.
 
 Resumindo, o código configura um roteador de gateway que define várias rotas com base nos caminhos da URL. Ele adiciona filtros personalizados a algumas rotas e direciona as solicitações para serviços de destino específicos. Isso permite que o gateway atue como um ponto de entrada único para vários serviços e fornece recursos de roteamento e filtragem.
 
@@ -38,15 +50,23 @@ a solicitação para uma instância do serviço disponível.
 
 package com.microservices.apigateway;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class ApiGatewayConfiguration {
     @Bean
-    public RouteLocator gatewayRouter(RouteLocatorBuilder builder) {
+    public RouteLocator gatewayRouter(RouteLocatorBuilder builder,
+                                      ResponseCacheGatewayFilterFactory responseCache,
+                                      TokenBucketRateLimiter rateLimiter,
+                                      ClientKeyResolver keyResolver,
+                                      @Value("${gateway.response-cache.ttl.currency-exchange:PT60S}") Duration exchangeTtl,
+                                      @Value("${gateway.response-cache.ttl.currency-conversion:PT10S}") Duration conversionTtl) {
         return builder
                 .routes()
                 .route(p -> p.path("/get")
@@ -55,10 +75,24 @@ public class ApiGatewayConfiguration {
                                 .addRequestParameter("Param", "MyValue"))
                         .uri("http://httpbin.org:80"))
                 .route(p -> p.path("/currency-exchange/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .filter(responseCache.apply(c -> c.setTimeToLive(exchangeTtl))))
                         .uri("lb://currency-exchange"))
                 .route(p -> p.path("/currency-conversion/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .filter(responseCache.apply(c -> c.setTimeToLive(conversionTtl))))
                         .uri("lb://currency-conversion"))
                 .route(p -> p.path("/currency-conversion-feign/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .filter(responseCache.apply(c -> c.setTimeToLive(conversionTtl))))
+                        .uri("lb://currency-conversion"))
+                .route(p -> p.path("/currency-conversion-reactive/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .filter(responseCache.apply(c -> c.setTimeToLive(conversionTtl))))
                         .uri("lb://currency-conversion"))
                 .build();
     }
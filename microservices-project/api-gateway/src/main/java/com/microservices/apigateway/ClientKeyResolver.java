@@ -0,0 +1,55 @@
+/*
+A classe `ClientKeyResolver` é o `KeyResolver` usado pelo filtro `RequestRateLimiter` das rotas do
+`ApiGatewayConfiguration`. Ela define quem é o cliente de cada requisição, ou seja, qual bucket de tokens
+do `TokenBucketRateLimiter` a requisição vai consumir.
+
+1. Se a requisição estiver autenticada (`ServerWebExchange.getPrincipal`), o nome do usuário autenticado
+é usado como chave. Cabeçalhos enviados pelo próprio cliente, como um `X-Client-Id`, nunca são usados:
+um cliente que mudasse o valor a cada requisição ganharia um bucket novo a cada vez.
+
+2. Caso contrário, a chave é o endereço IP do cliente. Quando o gateway fica atrás de proxies
+confiáveis (`gateway.rate-limiter.trusted-proxies` maior que zero), o IP é lido do `X-Forwarded-For`,
+ignorando apenas os endereços adicionados por esses proxies. Com zero, o endereço da conexão é usado,
+para que o cliente não consiga trocar de bucket apenas mudando o cabeçalho.
+*/
+
+package com.microservices.apigateway;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+@Component
+public class ClientKeyResolver implements KeyResolver {
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public ClientKeyResolver(@Value("${gateway.rate-limiter.trusted-proxies:0}") int trustedProxies) {
+        this.remoteAddressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() { };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .filter(name -> !name.isBlank())
+                .map(name -> "user:" + name)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + remoteAddress(exchange)));
+    }
+
+    private String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+
+        return address != null && address.getAddress() != null
+                ? address.getAddress().getHostAddress()
+                : "unknown";
+    }
+}
@@ -5,6 +5,7 @@ Vamos analisar o código passo a passo:
 
 2. A classe `LoggingFilter` implementa a interface `GlobalFilter`, que é fornecida pelo Spring Cloud
 Gateway. Isso permite que a classe atue como um filtro global para todas as solicitações que passam pelo gateway.
+Ela também implementa `Ordered` com a maior precedência, para que o tempo medido inclua todos os outros filtros.
 
 3. A classe declara um objeto `Logger` chamado `logger`, que é usado para registrar mensagens de log.
 O logger é obtido chamando o método `getLogger` da classe `LoggerFactory` e passando a classe
@@ -13,41 +14,142 @@ O logger é obtido chamando o método `getLogger` da classe `LoggerFactory` e pa
 4. A classe substitui o método `filter` da interface `GlobalFilter`. Esse método é chamado para cada
 solicitação recebida pelo gateway e é onde a lógica do filtro é implementada.
 
-5. Dentro do método `filter`, a linha `logger.info("Path of the request received -> {}",
-exchange.getRequest().getPath());` registra uma mensagem de log. A mensagem exibe o caminho da
-solicitação recebida usando `exchange.getRequest().getPath()`. O método `info` do logger é
-usado para registrar a mensagem com nível de log "info".
+5. Dentro do método `filter`, a requisição é sorteada de acordo com a taxa de amostragem
+(`gateway.access-log.sampling-rate`, de 0.0 a 1.0). Para as requisições sorteadas, quando a troca
+termina (`doFinally`) é montado um `AccessLogEntry` com o método, o caminho, o status, o tempo gasto
+e o id da rota. Respostas com status 5xx são sempre registradas, independente da amostragem.
 
-6. Após o registro da mensagem de log, o método `filter` chama `chain.filter(exchange)` para
+6. O registro não é escrito na thread do Netty (event loop). A entrada é colocada em um buffer circular
+limitado (`ArrayBlockingQueue`, tamanho `gateway.access-log.buffer-size`) com `offer`, que nunca
+bloqueia: se o buffer estiver cheio, a entrada é descartada e contada na métrica
+`gateway.access.log.dropped`. Uma thread daemon separada esvazia o buffer e escreve no logger.
+
+7. Após preparar o registro, o método `filter` chama `chain.filter(exchange)` para
 permitir que a solicitação continue seu processamento normalmente pelo gateway. Essa chamada
 encaminha a solicitação para o próximo filtro na cadeia ou para o roteamento final, dependendo
 da configuração do gateway.
 
-Em resumo, o filtro `LoggingFilter` captura todas as solicitações que passam pelo Spring Cloud
-Gateway e registra uma mensagem de log com o caminho da solicitação. Isso pode ser útil para fins
+Em resumo, o filtro `LoggingFilter` captura as solicitações que passam pelo Spring Cloud
+Gateway e registra um log de acesso estruturado de cada uma. Isso pode ser útil para fins
 de auditoria, depuração ou acompanhamento do fluxo de solicitações no gateway.
 */
 
 package com.microservices.apigateway;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.logging.Logger;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class LoggingFilter implements GlobalFilter {
-    private Logger logger = (Logger) LoggerFactory.getLogger(LoggingFilter.class);
+public class LoggingFilter implements GlobalFilter, Ordered, DisposableBean {
+    private Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
+
+    private final BlockingQueue<AccessLogEntry> buffer;
+
+    private final double samplingRate;
+
+    private final Counter dropped;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public LoggingFilter(MeterRegistry meterRegistry,
+                         @Value("${gateway.access-log.buffer-size:8192}") int bufferSize,
+                         @Value("${gateway.access-log.sampling-rate:1.0}") double samplingRate) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.samplingRate = samplingRate;
+        this.dropped = Counter.builder("gateway.access.log.dropped")
+                .description("Access log entries discarded because the buffer was full")
+                .register(meterRegistry);
+
+        Gauge.builder("gateway.access.log.buffered", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::drain, "gateway-access-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        // logger.info("Path of the request received : {}", exchange.getRequest().getPath());
-        logger.info("Path of the request received -> {}");
+        boolean sampled = samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+        long start = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+
+                    if (sampled || (status != null && status.is5xxServerError())) {
+                        enqueue(exchange, status, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void enqueue(ServerWebExchange exchange, HttpStatusCode status, long elapsedNanos) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+
+        AccessLogEntry entry = new AccessLogEntry(
+                request.getMethod().name(),
+                request.getPath().value(),
+                status != null ? status.value() : 0,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                route != null ? route.getId() : "-"
+        );
+
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        while (running || !buffer.isEmpty()) {
+            try {
+                AccessLogEntry entry = buffer.poll(1, TimeUnit.SECONDS);
+
+                if (entry != null) {
+                    logger.info("method={} path={} status={} latencyMs={} route={}",
+                            entry.method(), entry.path(), entry.status(), entry.latencyMillis(), entry.routeId());
+                }
+            } catch (InterruptedException e) {
+                // No desligamento, escreve o que ainda estiver no buffer e termina
+                running = false;
+            }
+        }
+    }
 
-        return chain.filter(exchange);
+    record AccessLogEntry(String method, String path, int status, long latencyMillis, String routeId) {
     }
 }
@@ -0,0 +1,83 @@
+/*
+A classe `ResponseCacheCaptureFilter` é a parte do cache de respostas do gateway que captura o corpo
+escrito pelo serviço de destino (ver `ResponseCacheGatewayFilterFactory`).
+
+1. O filtro roda logo antes do `NettyWriteResponseFilter` e envolve a resposta das requisições GET em um
+decorator, já que é nessa resposta que o `NettyWriteResponseFilter` escreve o corpo vindo do serviço.
+
+2. O decorator só guarda a resposta quando a consulta ao cache, que roda depois nos filtros da rota,
+deixou uma `PendingResponse` nos atributos da requisição (MISS) e a resposta pode ser guardada. Nos
+outros casos, o corpo passa direto.
+
+3. O corpo é juntado em um único array de bytes, salvo no cache e entregue às requisições que estavam
+esperando por ele. Uma resposta sem corpo é guardada com um array vazio.
+*/
+
+package com.microservices.apigateway;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@Component
+public class ResponseCacheCaptureFilter implements GlobalFilter, Ordered {
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        return chain.filter(exchange.mutate()
+                .response(new CapturingResponseDecorator(exchange, exchange.getResponse()))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private static class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+        private final ServerWebExchange exchange;
+
+        CapturingResponseDecorator(ServerWebExchange exchange, ServerHttpResponse delegate) {
+            super(delegate);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            ResponseCacheGatewayFilterFactory.PendingResponse pending =
+                    exchange.getAttribute(ResponseCacheGatewayFilterFactory.PENDING_RESPONSE_ATTR);
+
+            if (pending == null || !ResponseCacheGatewayFilterFactory.isCacheable(getStatusCode(), getHeaders())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body)
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        return bytes;
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> new byte[0]))
+                    .flatMap(bytes -> {
+                        pending.store(getStatusCode(), getHeaders(), bytes);
+
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*
+A classe `ResponseCacheGatewayFilterFactory` cria um `GatewayFilter` que guarda em memória as respostas
+das rotas idempotentes (requisições GET), evitando que requisições idênticas feitas em sequência sejam
+encaminhadas novamente para o serviço de destino via `lb://`.
+
+1. A chave do cache é formada pelo id da rota, pelo caminho com a query string e pelos valores dos
+cabeçalhos relevantes (por padrão `Accept`, `Accept-Encoding` e `Authorization`).
+
+2. Cada rota define o seu próprio tempo de vida (`timeToLive`) ao aplicar o filtro no
+`ApiGatewayConfiguration`. O cache é do Caffeine, com expiração por entrada e limite de tamanho em
+bytes (`gateway.response-cache.maximum-size-bytes`).
+
+3. Quando várias requisições idênticas chegam ao mesmo tempo e a resposta ainda não está no cache, só a
+primeira é encaminhada para o serviço; as outras esperam por ela (request coalescing). Se a resposta
+não puder ser guardada, as que estavam esperando seguem para o serviço normalmente.
+
+4. Somente respostas 200 são guardadas (inclusive com corpo vazio), e nunca as que tenham `Set-Cookie`
+ou `Cache-Control` com `no-store`/`private`. Requisições com `Cache-Control: no-cache` não usam o cache.
+
+5. Se a resposta guardada tem `ETag` e o `If-None-Match` da requisição corresponde a ele, o gateway
+responde 304 (Not Modified) sem corpo, como o serviço de destino faria.
+
+6. Toda resposta recebe o cabeçalho `X-Gateway-Cache` (HIT, MISS, COALESCED ou BYPASS) e o mesmo status
+é contado na métrica `gateway.response.cache`, com os contadores guardados por rota e status. As
+métricas do próprio Caffeine ficam em `cache.*`.
+
+O filtro é dividido em duas partes:
+    - a consulta ao cache é o filtro da rota criado aqui, sem ordem própria. Como ele é declarado depois
+    do `requestRateLimiter` nas rotas, o rate limiter vale também para as respostas servidas do cache;
+    - a captura do corpo fica no `ResponseCacheCaptureFilter`, logo antes do `NettyWriteResponseFilter`,
+    porque precisa envolver a resposta em que ele escreve. Ela só guarda a resposta quando a consulta
+    deixou uma `PendingResponse` nos atributos da requisição (MISS).
+As respostas servidas do cache (HIT, COALESCED e 304) não passam pelo `AdaptiveConcurrencyLimitFilter`,
+de propósito: elas não ocupam uma vaga no serviço de destino, que é o que aquele limite protege.
+*/
+
+package com.microservices.apigateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+    public static final String CACHE_STATUS_HEADER = "X-Gateway-Cache";
+
+    static final String PENDING_RESPONSE_ATTR = ResponseCacheGatewayFilterFactory.class.getName() + ".pending";
+
+    // Cabeçalhos da resposta guardada que também vão no 304
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    private final Cache<String, CachedResponse> cache;
+
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry,
+                                             @Value("${gateway.response-cache.maximum-size-bytes:67108864}") long maximumSizeBytes) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSizeBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.timeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.timeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-response-cache");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String routeId = routeId(exchange);
+
+            if (request.getMethod() != HttpMethod.GET || requestsNoCache(request)) {
+                count(routeId, "BYPASS");
+                exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "BYPASS");
+                return chain.filter(exchange);
+            }
+
+            String key = key(routeId, request, config);
+
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                count(routeId, "HIT");
+                return write(exchange, cached, "HIT");
+            }
+
+            Sinks.One<CachedResponse> sink = Sinks.one();
+            Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+            if (leader != null) {
+                count(routeId, "COALESCED");
+                return leader.asMono()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(response -> response.isPresent()
+                                ? write(exchange, response.get(), "COALESCED")
+                                : chain.filter(exchange));
+            }
+
+            count(routeId, "MISS");
+            exchange.getAttributes().put(PENDING_RESPONSE_ATTR, new PendingResponse(key, config, sink));
+            exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        inFlight.remove(key, sink);
+                        sink.tryEmitEmpty();
+                    });
+        };
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+
+        if (notModified(exchange.getRequest(), cached)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            for (String header : NOT_MODIFIED_HEADERS) {
+                List<String> values = cached.headers().get(header);
+                if (values != null) {
+                    response.getHeaders().put(header, values);
+                }
+            }
+            response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+
+            return response.setComplete();
+        }
+
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().length);
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean notModified(ServerHttpRequest request, CachedResponse cached) {
+        String etag = cached.headers().getETag();
+
+        if (etag == null) {
+            return false;
+        }
+
+        List<String> ifNoneMatch;
+        try {
+            ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        } catch (IllegalArgumentException ex) {
+            // If-None-Match malformado: a resposta completa é devolvida
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch) {
+            // If-None-Match usa a comparação fraca: W/"x" e "x" são a mesma versão
+            if (candidate.equals("*") || withoutWeakPrefix(candidate).equals(withoutWeakPrefix(etag))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String withoutWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static boolean requestsNoCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+
+        return cacheControl != null && cacheControl.contains("no-cache");
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, Config config) {
+        StringBuilder key = new StringBuilder(routeId)
+                .append(' ')
+                .append(request.getURI().getRawPath());
+
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+
+        for (String header : config.getHeaders()) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrEmpty(header));
+        }
+
+        return key.toString();
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private void count(String routeId, String cacheStatus) {
+        counters.computeIfAbsent(routeId + '\n' + cacheStatus, key -> Counter.builder("gateway.response.cache")
+                        .tag("route", routeId)
+                        .tag("status", cacheStatus)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    static boolean isCacheable(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+
+        String cacheControl = headers.getCacheControl();
+
+        return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    /*
+    A `PendingResponse` é deixada nos atributos da requisição quando ela é um MISS. O
+    `ResponseCacheCaptureFilter` chama `store` com a resposta do serviço, que é salva no cache e entregue
+    às requisições que estavam esperando por ela.
+    */
+    final class PendingResponse {
+        private final String key;
+        private final Config config;
+        private final Sinks.One<CachedResponse> sink;
+
+        PendingResponse(String key, Config config, Sinks.One<CachedResponse> sink) {
+            this.key = key;
+            this.config = config;
+            this.sink = sink;
+        }
+
+        void store(HttpStatusCode status, HttpHeaders responseHeaders, byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            responseHeaders.forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(CACHE_STATUS_HEADER);
+
+            CachedResponse cached = new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers),
+                    body, config.getTimeToLive());
+            cache.put(key, cached);
+            sink.tryEmitValue(cached);
+        }
+    }
+
+    record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Duration timeToLive) {
+    }
+
+    public static class Config {
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        private List<String> headers = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public Config setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        public Config setHeaders(List<String> headers) {
+            this.headers = headers;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+A classe `TokenBucketRateLimiter` é o `RateLimiter` do Spring Cloud Gateway usado pelo filtro
+`RequestRateLimiter` das rotas do `ApiGatewayConfiguration`. Ela limita as requisições no próprio
+gateway, em memória, sem Redis: uma requisição rejeitada recebe 429 (Too Many Requests) ainda na thread
+do Netty (event loop) e nunca chega ao serviço de destino.
+
+1. Cada requisição precisa de um token em dois buckets:
+    - o bucket do cliente na rota (chave resolvida pelo `ClientKeyResolver`), com `replenishRate`
+    tokens por segundo e até `burstCapacity` tokens acumulados;
+    - o bucket da rota inteira, com `routeReplenishRate` e `routeBurstCapacity`, que limita a soma de
+    todos os clientes.
+Se o bucket da rota recusar, o token já retirado do bucket do cliente é devolvido.
+
+2. Cada bucket é um único `AtomicLong`, no estilo GCRA (generic cell rate algorithm), que é equivalente
+a um token bucket: em vez de guardar a quantidade de tokens e o instante da última reposição, ele guarda
+o "instante teórico de chegada" da próxima requisição. Retirar um token é avançar esse instante em
+`1s / replenishRate` com `compareAndSet`, e a requisição é recusada se ele ficar mais de
+`burstCapacity` intervalos à frente do relógio. Não há locks nem threads de reposição. Taxas menores
+que 1 são tratadas como 1 requisição por segundo.
+
+3. Cada rota tem um único bucket. Com as taxas usadas aqui, a disputa entre as threads do event loop
+pelo mesmo `AtomicLong` é desprezível, e o limite da rota vale para o tráfego todo, não importa por
+quantas conexões (e portanto por quantas threads) ele chegue.
+
+4. Os buckets dos clientes ficam em um cache do Caffeine, que expira os clientes inativos
+(`gateway.rate-limiter.client-idle-timeout`) e limita a quantidade de clientes guardados.
+
+5. Os limites padrão vêm das propriedades `gateway.rate-limiter.*`. Rotas definidas por propriedades
+podem ter limites próprios com os argumentos `local-rate-limiter.*` do filtro (`AbstractRateLimiter`).
+As rejeições são contadas na métrica `gateway.rate.limiter.rejected`, por rota e por bucket (`client` ou
+`route`), com os contadores guardados em um mapa para não registrá-los a cada rejeição, e as respostas
+levam os cabeçalhos `X-RateLimit-*`.
+*/
+
+package com.microservices.apigateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Config defaultConfig;
+
+    private final Cache<String, GcraBucket> clientBuckets;
+
+    private final Map<String, GcraBucket> routeBuckets = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public TokenBucketRateLimiter(ConfigurationService configurationService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${gateway.rate-limiter.replenish-rate:10}") int replenishRate,
+                                  @Value("${gateway.rate-limiter.burst-capacity:20}") int burstCapacity,
+                                  @Value("${gateway.rate-limiter.route-replenish-rate:500}") int routeReplenishRate,
+                                  @Value("${gateway.rate-limiter.route-burst-capacity:1000}") int routeBurstCapacity,
+                                  @Value("${gateway.rate-limiter.client-idle-timeout:PT10M}") Duration clientIdleTimeout,
+                                  @Value("${gateway.rate-limiter.maximum-clients:100000}") long maximumClients) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = new Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity)
+                .setRouteReplenishRate(routeReplenishRate)
+                .setRouteBurstCapacity(routeBurstCapacity);
+        this.clientBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(clientIdleTimeout)
+                .maximumSize(maximumClients)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = System.nanoTime();
+
+        long clientInterval = intervalNanos(config.getReplenishRate());
+        GcraBucket clientBucket = clientBuckets.get(routeId + '\n' + id, key -> new GcraBucket(now));
+        long remaining = clientBucket.tryAcquire(now, clientInterval, config.getBurstCapacity());
+
+        if (remaining < 0) {
+            return Mono.just(reject(routeId, "client", config));
+        }
+
+        GcraBucket routeBucket = routeBuckets.computeIfAbsent(routeId, key -> new GcraBucket(now));
+
+        if (routeBucket.tryAcquire(now, intervalNanos(config.getRouteReplenishRate()), config.getRouteBurstCapacity()) < 0) {
+            clientBucket.refund(clientInterval);
+
+            return Mono.just(reject(routeId, "route", config));
+        }
+
+        return Mono.just(new Response(true, headers(config, remaining)));
+    }
+
+    private Response reject(String routeId, String bucket, Config config) {
+        rejectedCounters.computeIfAbsent(routeId + '\n' + bucket, key -> Counter.builder("gateway.rate.limiter.rejected")
+                        .tag("route", routeId)
+                        .tag("bucket", bucket)
+                        .register(meterRegistry))
+                .increment();
+
+        return new Response(false, headers(config, 0));
+    }
+
+    private static long intervalNanos(int replenishRate) {
+        return NANOS_PER_SECOND / Math.max(1, replenishRate);
+    }
+
+    private static Map<String, String> headers(Config config, long remaining) {
+        return Map.of(
+                REMAINING_HEADER, String.valueOf(remaining),
+                REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity())
+        );
+    }
+
+    /*
+    O `GcraBucket` guarda em um `AtomicLong` o instante teórico (em `System.nanoTime`) em que o bucket
+    estaria cheio de novo. `tryAcquire` avança esse instante em um intervalo e devolve quantos tokens
+    ainda restam, ou -1 se a requisição passaria da capacidade. As comparações usam a diferença entre os
+    instantes, como recomendado para o `nanoTime`.
+    */
+    static final class GcraBucket {
+        private final AtomicLong theoreticalArrival;
+
+        GcraBucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        long tryAcquire(long now, long intervalNanos, int burstCapacity) {
+            long tolerance = intervalNanos * burstCapacity;
+
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long ahead = next - now;
+
+                if (ahead > tolerance) {
+                    return -1;
+                }
+
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return (tolerance - ahead) / intervalNanos;
+                }
+            }
+        }
+
+        void refund(long intervalNanos) {
+            theoreticalArrival.addAndGet(-intervalNanos);
+        }
+    }
+
+    public static class Config {
+        private int replenishRate = 10;
+
+        private int burstCapacity = 20;
+
+        private int routeReplenishRate = 500;
+
+        private int routeBurstCapacity = 1000;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRouteReplenishRate() {
+            return routeReplenishRate;
+        }
+
+        public Config setRouteReplenishRate(int routeReplenishRate) {
+            this.routeReplenishRate = routeReplenishRate;
+            return this;
+        }
+
+        public int getRouteBurstCapacity() {
+            return routeBurstCapacity;
+        }
+
+        public Config setRouteBurstCapacity(int routeBurstCapacity) {
+            this.routeBurstCapacity = routeBurstCapacity;
+            return this;
+        }
+    }
+}
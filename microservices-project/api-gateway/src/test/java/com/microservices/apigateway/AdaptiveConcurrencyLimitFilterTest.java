@@ -0,0 +1,129 @@
+package com.microservices.apigateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitFilterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Route route = Route.async()
+            .id("currency-exchange")
+            .uri(URI.create("lb://currency-exchange"))
+            .predicate(exchange -> true)
+            .build();
+
+    @Test
+    void rejectsWith503AndRetryAfterWhenRouteIsAtItsLimit() {
+        AdaptiveConcurrencyLimitFilter filter = filter(1, 1, 10);
+        AtomicInteger forwarded = new AtomicInteger();
+        GatewayFilterChain chain = exchange -> {
+            forwarded.incrementAndGet();
+            return Mono.never();
+        };
+
+        Disposable inFlight = filter.filter(exchange(), chain).subscribe();
+
+        MockServerWebExchange rejected = exchange();
+        filter.filter(rejected, chain).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, forwarded.get());
+        assertEquals(1, meterRegistry.get("gateway.concurrency.rejected").counter().count());
+
+        inFlight.dispose();
+    }
+
+    @Test
+    void cancelledRequestIsNotCountedAsASample() {
+        AdaptiveConcurrencyLimitFilter filter = filter(10, 1, 100);
+        GatewayFilterChain chain = exchange -> {
+            // Um 502 contado como amostra reduziria o limite
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+            return Mono.never();
+        };
+
+        Disposable request = filter.filter(exchange(), chain).subscribe();
+        assertEquals(1, meterRegistry.get("gateway.concurrency.inflight").gauge().value());
+
+        request.dispose();
+
+        assertEquals(0, meterRegistry.get("gateway.concurrency.inflight").gauge().value());
+        assertEquals(10, meterRegistry.get("gateway.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void limitShrinksOnServerErrors() {
+        AdaptiveConcurrencyLimitFilter.RouteLimiter limiter = limiter(filter(20, 1, 100));
+
+        limiter.onSample(FAST, 20, true);
+
+        assertTrue(limiter.limit() < 20);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimitFilter.RouteLimiter limiter = limiter(filter(20, 1, 1000));
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(FAST, (int) limiter.limit(), false);
+        }
+        double before = limiter.limit();
+        assertTrue(before > 20);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(FAST * 20, (int) limiter.limit(), false);
+        }
+
+        assertTrue(limiter.limit() < before);
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+        AdaptiveConcurrencyLimitFilter.RouteLimiter limiter = limiter(filter(20, 5, 40));
+
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(FAST, (int) limiter.limit(), false);
+        }
+        assertEquals(40, limiter.limit());
+
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(FAST, (int) limiter.limit(), true);
+        }
+        assertEquals(5, limiter.limit());
+    }
+
+    private AdaptiveConcurrencyLimitFilter filter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimitFilter(meterRegistry, initialLimit, minLimit, maxLimit,
+                1.5, 0.2, 0.9, 600, Duration.ofSeconds(1));
+    }
+
+    private AdaptiveConcurrencyLimitFilter.RouteLimiter limiter(AdaptiveConcurrencyLimitFilter filter) {
+        return filter.new RouteLimiter(route.getId(), route.getUri().getHost());
+    }
+
+    private MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/currency-exchange/from/USD/to/INR"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+
+        return exchange;
+    }
+}
@@ -0,0 +1,71 @@
+package com.microservices.apigateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.validation.Validator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientKeyResolverTest {
+    private final ClientKeyResolver resolver = new ClientKeyResolver(0);
+
+    @Test
+    void usesConnectionAddressAndIgnoresClientIdHeader() {
+        assertEquals("ip:10.0.0.1", resolver.resolve(exchange("10.0.0.1", "client-a")).block());
+        assertEquals("ip:10.0.0.1", resolver.resolve(exchange("10.0.0.1", "client-b")).block());
+    }
+
+    @Test
+    void rotatingClientIdHeaderDoesNotResetTheLimit() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new ConfigurationService(beanFactory,
+                beanFactory.getBeanProvider(ConversionService.class), beanFactory.getBeanProvider(Validator.class)),
+                new SimpleMeterRegistry(), 1, 2, 500, 1000, Duration.ofMinutes(10), 1000);
+
+        for (int i = 0; i < 2; i++) {
+            String key = resolver.resolve(exchange("10.0.0.1", "client-" + i)).block();
+            assertTrue(limiter.isAllowed("currency-exchange", key).block().isAllowed());
+        }
+
+        String key = resolver.resolve(exchange("10.0.0.1", "client-2")).block();
+        assertFalse(limiter.isAllowed("currency-exchange", key).block().isAllowed());
+    }
+
+    @Test
+    void usesAuthenticatedPrincipal() {
+        Principal principal = () -> "alice";
+        ServerWebExchange exchange = exchange("10.0.0.1", "client-a").mutate()
+                .principal(Mono.just(principal))
+                .build();
+
+        assertEquals("user:alice", resolver.resolve(exchange).block());
+    }
+
+    @Test
+    void readsForwardedAddressOnlyFromTrustedProxies() {
+        ClientKeyResolver behindProxy = new ClientKeyResolver(1);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/currency-exchange/from/USD/to/INR")
+                .remoteAddress(new InetSocketAddress("10.0.0.254", 40000))
+                .header("X-Forwarded-For", "6.6.6.6, 192.168.1.10"));
+
+        // Só o último endereço foi adicionado pelo proxy confiável; o primeiro veio do cliente
+        assertEquals("ip:192.168.1.10", behindProxy.resolve(exchange).block());
+    }
+
+    private static MockServerWebExchange exchange(String address, String clientId) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/currency-exchange/from/USD/to/INR")
+                .remoteAddress(new InetSocketAddress(address, 40000))
+                .header("X-Client-Id", clientId));
+    }
+}
@@ -0,0 +1,117 @@
+package com.microservices.apigateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGatewayFilterFactoryTest {
+    private static final String ETAG = "\"7-abc-8000\"";
+
+    private final ResponseCacheCaptureFilter capture = new ResponseCacheCaptureFilter();
+
+    private final GatewayFilter lookup = new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry(), 1024 * 1024)
+            .apply(new ResponseCacheGatewayFilterFactory.Config());
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    @Test
+    void servesSecondRequestFromCache() {
+        GatewayFilterChain service = service("{\"conversionMultiple\":65}");
+
+        MockServerWebExchange first = get();
+        handle(first, service);
+        MockServerWebExchange second = get();
+        handle(second, service);
+
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("{\"conversionMultiple\":65}", second.getResponse().getBodyAsString().block());
+        assertEquals(1, forwarded.get());
+    }
+
+    @Test
+    void answersNotModifiedWhenIfNoneMatchMatchesCachedETag() {
+        GatewayFilterChain service = service("{\"conversionMultiple\":65}");
+        handle(get(), service);
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(request()
+                .header(HttpHeaders.IF_NONE_MATCH, ETAG));
+        handle(revalidation, service);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals(ETAG, revalidation.getResponse().getHeaders().getETag());
+        assertEquals("", revalidation.getResponse().getBodyAsString().block());
+        assertEquals(1, forwarded.get());
+    }
+
+    @Test
+    void answersFullBodyWhenIfNoneMatchIsStale() {
+        GatewayFilterChain service = service("{\"conversionMultiple\":65}");
+        handle(get(), service);
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(request()
+                .header(HttpHeaders.IF_NONE_MATCH, "\"6-abc-8000\""));
+        handle(revalidation, service);
+
+        assertEquals(HttpStatus.OK, revalidation.getResponse().getStatusCode());
+        assertEquals("{\"conversionMultiple\":65}", revalidation.getResponse().getBodyAsString().block());
+        assertEquals(1, forwarded.get());
+    }
+
+    @Test
+    void cachesResponseWithEmptyBody() {
+        GatewayFilterChain service = exchange -> {
+            forwarded.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+
+            return exchange.getResponse().writeWith(Flux.empty());
+        };
+
+        MockServerWebExchange first = get();
+        handle(first, service);
+        MockServerWebExchange second = get();
+        handle(second, service);
+
+        assertEquals(HttpStatus.OK, first.getResponse().getStatusCode());
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals(0, second.getResponse().getHeaders().getContentLength());
+        assertEquals(1, forwarded.get());
+    }
+
+    // A captura roda antes (perto do NettyWriteResponseFilter) e a consulta depois, nos filtros da rota
+    private void handle(ServerWebExchange exchange, GatewayFilterChain service) {
+        capture.filter(exchange, captured -> lookup.filter(captured, service)).block();
+    }
+
+    private GatewayFilterChain service(String body) {
+        return exchange -> {
+            forwarded.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setETag(ETAG);
+
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(request());
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request() {
+        return MockServerHttpRequest.get("/currency-exchange/from/USD/to/INR");
+    }
+}
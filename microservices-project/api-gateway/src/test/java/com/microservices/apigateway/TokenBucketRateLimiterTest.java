@@ -0,0 +1,140 @@
+package com.microservices.apigateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.validation.Validator;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final String ROUTE = "currency-exchange";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void bucketAllowsBurstThenRejectsUntilRefilled() {
+        long now = System.nanoTime();
+        TokenBucketRateLimiter.GcraBucket bucket = new TokenBucketRateLimiter.GcraBucket(now);
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            assertEquals(remaining, bucket.tryAcquire(now, INTERVAL, 3));
+        }
+        assertEquals(-1, bucket.tryAcquire(now, INTERVAL, 3));
+
+        assertEquals(0, bucket.tryAcquire(now + INTERVAL, INTERVAL, 3));
+        assertEquals(-1, bucket.tryAcquire(now + INTERVAL, INTERVAL, 3));
+    }
+
+    @Test
+    void refundReturnsTheToken() {
+        long now = System.nanoTime();
+        TokenBucketRateLimiter.GcraBucket bucket = new TokenBucketRateLimiter.GcraBucket(now);
+
+        assertEquals(0, bucket.tryAcquire(now, INTERVAL, 1));
+        assertEquals(-1, bucket.tryAcquire(now, INTERVAL, 1));
+
+        bucket.refund(INTERVAL);
+
+        assertEquals(0, bucket.tryAcquire(now, INTERVAL, 1));
+    }
+
+    @Test
+    void clientBucketRejectsAfterBurstWithRateLimitHeaders() {
+        TokenBucketRateLimiter limiter = limiter(new TokenBucketRateLimiter.Config()
+                .setReplenishRate(1)
+                .setBurstCapacity(2));
+
+        RateLimiter.Response first = limiter.isAllowed(ROUTE, "ip:10.0.0.1").block();
+        RateLimiter.Response second = limiter.isAllowed(ROUTE, "ip:10.0.0.1").block();
+        RateLimiter.Response third = limiter.isAllowed(ROUTE, "ip:10.0.0.1").block();
+
+        assertTrue(first.isAllowed());
+        assertEquals("1", first.getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER));
+        assertEquals("1", first.getHeaders().get(TokenBucketRateLimiter.REPLENISH_RATE_HEADER));
+        assertEquals("2", first.getHeaders().get(TokenBucketRateLimiter.BURST_CAPACITY_HEADER));
+
+        assertTrue(second.isAllowed());
+        assertEquals("0", second.getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER));
+
+        assertFalse(third.isAllowed());
+        assertEquals("0", third.getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER));
+        assertEquals(1, rejected("client"));
+
+        // Outro cliente tem o seu próprio bucket
+        assertTrue(limiter.isAllowed(ROUTE, "ip:10.0.0.2").block().isAllowed());
+    }
+
+    @Test
+    void routeBucketLimitsAllClientsTogether() {
+        TokenBucketRateLimiter limiter = limiter(new TokenBucketRateLimiter.Config()
+                .setReplenishRate(1)
+                .setBurstCapacity(10)
+                .setRouteReplenishRate(1)
+                .setRouteBurstCapacity(2));
+
+        assertTrue(limiter.isAllowed(ROUTE, "ip:10.0.0.1").block().isAllowed());
+        assertTrue(limiter.isAllowed(ROUTE, "ip:10.0.0.2").block().isAllowed());
+        assertFalse(limiter.isAllowed(ROUTE, "ip:10.0.0.3").block().isAllowed());
+
+        assertEquals(1, rejected("route"));
+        assertEquals(0, rejected("client"));
+    }
+
+    @Test
+    void routeRejectionReturnsTheClientToken() {
+        TokenBucketRateLimiter limiter = limiter(new TokenBucketRateLimiter.Config()
+                .setReplenishRate(1)
+                .setBurstCapacity(1)
+                .setRouteReplenishRate(1)
+                .setRouteBurstCapacity(1));
+
+        assertTrue(limiter.isAllowed(ROUTE, "ip:10.0.0.1").block().isAllowed());
+
+        // Sem a devolução, a segunda requisição do cliente 2 seria recusada pelo bucket do cliente
+        assertFalse(limiter.isAllowed(ROUTE, "ip:10.0.0.2").block().isAllowed());
+        assertFalse(limiter.isAllowed(ROUTE, "ip:10.0.0.2").block().isAllowed());
+
+        assertEquals(2, rejected("route"));
+        assertEquals(0, rejected("client"));
+    }
+
+    @Test
+    void replenishRateBelowOneIsTreatedAsOnePerSecond() {
+        TokenBucketRateLimiter limiter = limiter(new TokenBucketRateLimiter.Config()
+                .setReplenishRate(0)
+                .setBurstCapacity(1)
+                .setRouteReplenishRate(0)
+                .setRouteBurstCapacity(10));
+
+        assertTrue(limiter.isAllowed(ROUTE, "ip:10.0.0.1").block().isAllowed());
+        assertFalse(limiter.isAllowed(ROUTE, "ip:10.0.0.1").block().isAllowed());
+    }
+
+    private TokenBucketRateLimiter limiter(TokenBucketRateLimiter.Config config) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ConfigurationService configurationService = new ConfigurationService(beanFactory,
+                beanFactory.getBeanProvider(ConversionService.class), beanFactory.getBeanProvider(Validator.class));
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(configurationService, meterRegistry,
+                10, 20, 500, 1000, Duration.ofMinutes(10), 1000);
+        limiter.getConfig().put(ROUTE, config);
+
+        return limiter;
+    }
+
+    private double rejected(String bucket) {
+        Counter counter = meterRegistry.find("gateway.rate.limiter.rejected").tag("bucket", bucket).counter();
+
+        return counter != null ? counter.count() : 0;
+    }
+}
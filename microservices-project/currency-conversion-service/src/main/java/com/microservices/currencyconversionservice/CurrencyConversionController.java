@@ -1,17 +1,36 @@
 package com.microservices.currencyconversionservice;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration(proxyBeanMethods = false)
 class RestTemplateConfiguration {
@@ -31,6 +50,21 @@ public class CurrencyConversionController {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WebClient currencyExchangeWebClient;
+
+    @Value("${currency-exchange.client.request-timeout:PT10S}")
+    private Duration requestTimeout;
+
+    @Value("${currency-exchange.client.batch-size:100}")
+    private int exchangeBatchSize;
+
+    @Value("${currency-conversion.batch.max-size:10000}")
+    private int batchMaxSize;
+
     /*
     Nesse trecho de código, temos um método `calculateCurrencyConversion` mapeado para o endpoint
     `/currency-conversion/from/{from}/to/{to}/quantity/{quantity}` utilizando a anotação `@GetMapping`.
@@ -132,4 +166,142 @@ public class CurrencyConversionController {
                 currencyConversion.getEnvironment() + "" + "feign"
         );
     }
+
+    /*
+    O método `calculateCurrencyConversionReactive` é a versão não bloqueante do `calculateCurrencyConversion`.
+    Ele é mapeado para `/currency-conversion-reactive/from/{from}/to/{to}/quantity/{quantity}` e devolve
+    um `Mono<CurrencyConversion>`.
+
+    A chamada ao serviço "currency-exchange" é feita com o `WebClient` configurado na classe
+    `WebClientConfiguration` (load balancer do Eureka + pool de conexões do Reactor Netty). Enquanto a
+    resposta não chega, nenhuma thread do Tomcat fica parada esperando o I/O: o Spring MVC libera a
+    thread e completa a requisição quando o `Mono` emitir o resultado.
+
+    O operador `timeout` limita o tempo total de cada requisição (`currency-exchange.client.request-timeout`).
+    */
+    @GetMapping("/currency-conversion-reactive/from/{from}/to/{to}/quantity/{quantity}")
+    public Mono<CurrencyConversion> calculateCurrencyConversionReactive(@PathVariable String from, @PathVariable String to, @PathVariable BigDecimal quantity) {
+        return currencyExchangeWebClient.get()
+                .uri("/currency-exchange/from/{from}/to/{to}", from, to)
+                .retrieve()
+                .bodyToMono(CurrencyConversion.class)
+                .timeout(requestTimeout)
+                .map(currencyConversion -> new CurrencyConversion(
+                        currencyConversion.getId(),
+                        from,
+                        to,
+                        currencyConversion.getConversionMultiple(),
+                        quantity,
+                        quantity.multiply(currencyConversion.getConversionMultiple()),
+                        currencyConversion.getEnvironment() + " " + "webclient"
+                ));
+    }
+
+    /*
+    O método `calculateCurrencyConversionBatch` é mapeado para `POST /currency-conversion/batch` e converte
+    vários itens (`from`, `to`, `quantity`) em uma única requisição HTTP.
+
+    1. O corpo da requisição é um array JSON lido item a item com um `MappingIterator` do Jackson,
+    direto do `InputStream`, sem montar uma árvore JSON intermediária. Todos os itens são validados
+    (`from`, `to` e `quantity` obrigatórios) antes de a resposta começar: um item inválido resulta em
+    400 (Bad Request), e não em uma resposta 200 cortada no meio.
+
+    Por causa dessa validação, os itens lidos ficam guardados em memória até o fim da leitura: o
+    endpoint não processa a entrada em streaming. Para limitar essa memória, um lote com mais de
+    `currency-conversion.batch.max-size` itens é recusado com 400 (Bad Request) assim que o item
+    excedente é lido, sem ler o resto do corpo.
+
+    2. Os pares de moedas repetidos são removidos e os pares distintos são enviados ao endpoint
+    `rates:batchGet` do serviço "currency-exchange" através do `CurrencyExchangeProxy`, em grupos de até
+    `currency-exchange.client.batch-size` pares (o limite aceito pelo serviço). Assim, milhares de itens
+    fazem poucas chamadas remotas, em vez de uma por item.
+
+    3. O resultado é devolvido com um `StreamingResponseBody`: cada `CurrencyConversion` é calculado
+    e escrito no `JsonGenerator` conforme o array de resposta é gerado. Os itens cujo par não foi
+    encontrado são escritos como um objeto com o campo `error`, sem interromper o restante do lote.
+    */
+    @PostMapping(value = "/currency-conversion/batch",
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateCurrencyConversionBatch(InputStream requestBody) throws IOException {
+        List<CurrencyConversionRequest> requests = new ArrayList<>();
+
+        try (MappingIterator<CurrencyConversionRequest> iterator =
+                     objectMapper.readerFor(CurrencyConversionRequest.class).readValues(requestBody)) {
+            while (iterator.hasNext()) {
+                if (requests.size() == batchMaxSize) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "batch has more than " + batchMaxSize + " items, the maximum allowed");
+                }
+
+                CurrencyConversionRequest request = iterator.next();
+
+                if (request == null || isBlank(request.getFrom()) || isBlank(request.getTo()) || request.getQuantity() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "item " + requests.size() + ": from, to and quantity are required");
+                }
+
+                requests.add(request);
+            }
+        }
+
+        Set<CurrencyPair> pairs = new LinkedHashSet<>();
+        for (CurrencyConversionRequest request : requests) {
+            pairs.add(new CurrencyPair(request.getFrom(), request.getTo()));
+        }
+
+        Map<CurrencyPair, CurrencyConversion> rates = new HashMap<>();
+        Map<CurrencyPair, String> errors = new HashMap<>();
+        List<CurrencyPair> distinctPairs = new ArrayList<>(pairs);
+        for (int start = 0; start < distinctPairs.size(); start += exchangeBatchSize) {
+            List<CurrencyPair> chunk = distinctPairs.subList(start, Math.min(start + exchangeBatchSize, distinctPairs.size()));
+            CurrencyExchangeBatchResponse batch = proxy.retrieveExchangeValues(chunk);
+
+            for (CurrencyConversion rate : batch.getRates()) {
+                rates.put(new CurrencyPair(rate.getFrom(), rate.getTo()), rate);
+            }
+            for (CurrencyExchangeBatchError error : batch.getErrors()) {
+                errors.put(new CurrencyPair(error.getFrom(), error.getTo()), error.getMessage());
+            }
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+
+                for (CurrencyConversionRequest request : requests) {
+                    CurrencyPair pair = new CurrencyPair(request.getFrom(), request.getTo());
+                    CurrencyConversion rate = rates.get(pair);
+
+                    if (rate == null) {
+                        generator.writeStartObject();
+                        generator.writeStringField("from", request.getFrom());
+                        generator.writeStringField("to", request.getTo());
+                        generator.writeObjectField("quantity", request.getQuantity());
+                        generator.writeStringField("error", errors.getOrDefault(pair, "unable to find data"));
+                        generator.writeEndObject();
+                        continue;
+                    }
+
+                    generator.writeObject(new CurrencyConversion(
+                            rate.getId(),
+                            request.getFrom(),
+                            request.getTo(),
+                            rate.getConversionMultiple(),
+                            request.getQuantity(),
+                            request.getQuantity().multiply(rate.getConversionMultiple()),
+                            rate.getEnvironment() + " " + "batch"
+                    ));
+                }
+
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
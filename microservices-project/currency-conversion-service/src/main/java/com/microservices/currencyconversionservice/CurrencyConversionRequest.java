@@ -0,0 +1,48 @@
+package com.microservices.currencyconversionservice;
+
+import java.math.BigDecimal;
+
+/*
+A classe `CurrencyConversionRequest` representa um item do corpo da requisição do endpoint de conversão
+em lote (`POST /currency-conversion/batch`). Cada item informa as moedas de origem e destino e a
+quantidade que deve ser convertida.
+*/
+public class CurrencyConversionRequest {
+    private String from;
+    private String to;
+    private BigDecimal quantity;
+
+    public CurrencyConversionRequest() {
+
+    }
+
+    public CurrencyConversionRequest(String from, String to, BigDecimal quantity) {
+        this.from = from;
+        this.to = to;
+        this.quantity = quantity;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+}
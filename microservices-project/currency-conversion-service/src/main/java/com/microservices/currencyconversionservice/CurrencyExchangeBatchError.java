@@ -0,0 +1,45 @@
+package com.microservices.currencyconversionservice;
+
+/*
+A classe `CurrencyExchangeBatchError` representa um erro por item devolvido pela busca de taxas em lote
+do serviço "currency-exchange", por exemplo quando um par de moedas não existe.
+*/
+public class CurrencyExchangeBatchError {
+    private String from;
+    private String to;
+    private String message;
+
+    public CurrencyExchangeBatchError() {
+
+    }
+
+    public CurrencyExchangeBatchError(String from, String to, String message) {
+        this.from = from;
+        this.to = to;
+        this.message = message;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
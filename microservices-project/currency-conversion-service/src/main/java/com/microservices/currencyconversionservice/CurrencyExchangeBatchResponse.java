@@ -0,0 +1,30 @@
+package com.microservices.currencyconversionservice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+A classe `CurrencyExchangeBatchResponse` representa a resposta do endpoint
+`POST /currency-exchange/rates:batchGet`: as taxas encontradas (`rates`) e os erros por item (`errors`).
+Assim como no `retrieveExchangeValue`, cada taxa é lida como um `CurrencyConversion`.
+*/
+public class CurrencyExchangeBatchResponse {
+    private List<CurrencyConversion> rates = new ArrayList<>();
+    private List<CurrencyExchangeBatchError> errors = new ArrayList<>();
+
+    public List<CurrencyConversion> getRates() {
+        return rates;
+    }
+
+    public void setRates(List<CurrencyConversion> rates) {
+        this.rates = rates;
+    }
+
+    public List<CurrencyExchangeBatchError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<CurrencyExchangeBatchError> errors) {
+        this.errors = errors;
+    }
+}
@@ -23,6 +23,11 @@ momento da chamada do método.
 O retorno desse método é do tipo `CurrencyConversion`, que é a classe que representa a resposta
 da chamada ao serviço "currency-exchange".
 
+O método `retrieveExchangeValues` é anotado com `@PostMapping` e chama o endpoint
+`/currency-exchange/rates:batchGet`, enviando uma lista de pares de moedas no corpo da requisição.
+Ele permite buscar todas as taxas necessárias em uma única chamada remota; os pares não encontrados
+voltam na lista de erros da resposta em vez de gerar uma exceção.
+
 Em resumo, essa interface `CurrencyExchangeProxy` define um cliente Feign para se comunicar com
 o serviço "currency-exchange". O método `retrieveExchangeValue` será usado para buscar as informações
 de conversão de moeda a partir do serviço remoto. Essa interface facilita a comunicação com o serviço
@@ -35,8 +40,11 @@ package com.microservices.currencyconversionservice;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 // @FeignClient(name = "currency-exchange", url = "localhost:8000")
 
@@ -47,4 +55,7 @@ import java.math.BigDecimal;
 public interface CurrencyExchangeProxy {
     @GetMapping("/currency-exchange/from/{from}/to/{to}")
     CurrencyConversion retrieveExchangeValue(@PathVariable String from, @PathVariable String to);
+
+    @PostMapping("/currency-exchange/rates:batchGet")
+    CurrencyExchangeBatchResponse retrieveExchangeValues(@RequestBody Collection<CurrencyPair> pairs);
 }
@@ -0,0 +1,9 @@
+package com.microservices.currencyconversionservice;
+
+/*
+O record `CurrencyPair` representa um par de moedas (`from`, `to`). Ele é usado para remover os pares
+repetidos da conversão em lote e como item do corpo da requisição enviada para o endpoint
+`/currency-exchange/rates:batchGet` do serviço "currency-exchange".
+*/
+public record CurrencyPair(String from, String to) {
+}
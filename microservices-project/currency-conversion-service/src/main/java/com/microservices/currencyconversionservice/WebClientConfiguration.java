@@ -0,0 +1,57 @@
+/*
+A classe `WebClientConfiguration` cria o `WebClient` usado pelo endpoint de conversão não bloqueante
+(`/currency-conversion-reactive/...`).
+
+1. O `WebClient.Builder` recebido é o do Spring Boot, que já vem com os codecs e a instrumentação do
+Micrometer (tracing), assim as chamadas continuam aparecendo no Zipkin.
+
+2. O `LoadBalancedExchangeFilterFunction` do Spring Cloud LoadBalancer é adicionado como filtro. Com ele,
+a URL base `http://currency-exchange` é resolvida pelo Eureka, da mesma forma que o Feign faz com o
+`CurrencyExchangeProxy`, em vez de usar o endereço fixo `http://localhost:8000`.
+
+3. O Reactor Netty usa um pool de conexões próprio (`ConnectionProvider`) com limite de conexões e de
+tempo de espera por uma conexão livre, além de timeout de conexão e de resposta. Todos os valores são
+configuráveis pelas propriedades `currency-exchange.client.*`.
+*/
+
+package com.microservices.currencyconversionservice;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+class WebClientConfiguration {
+
+    @Bean
+    WebClient currencyExchangeWebClient(WebClient.Builder builder,
+                                        LoadBalancedExchangeFilterFunction loadBalancer,
+                                        @Value("${currency-exchange.client.max-connections:200}") int maxConnections,
+                                        @Value("${currency-exchange.client.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout,
+                                        @Value("${currency-exchange.client.connect-timeout:PT2S}") Duration connectTimeout,
+                                        @Value("${currency-exchange.client.response-timeout:PT5S}") Duration responseTimeout) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("currency-exchange")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        return builder
+                .baseUrl("http://currency-exchange")
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(loadBalancer)
+                .build();
+    }
+}
@@ -2,11 +2,13 @@ package com.microservices.currencyexchangeservice;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(CurrencyExchangeCacheListener.class)
 public class CurrencyExchange {
     @Id
     private Long id;
@@ -0,0 +1,46 @@
+package com.microservices.currencyexchangeservice;
+
+/*
+A classe `CurrencyExchangeBatchError` descreve um par de moedas da busca em lote que não pôde ser
+resolvido (por exemplo, um par que não existe na tabela). Em vez de interromper o lote inteiro com uma
+exceção, o erro volta junto com as taxas encontradas.
+*/
+public class CurrencyExchangeBatchError {
+    private String from;
+    private String to;
+    private String message;
+
+    public CurrencyExchangeBatchError() {
+
+    }
+
+    public CurrencyExchangeBatchError(String from, String to, String message) {
+        this.from = from;
+        this.to = to;
+        this.message = message;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservices.currencyexchangeservice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+A classe `CurrencyExchangeBatchResponse` é a resposta do endpoint `POST /currency-exchange/rates:batchGet`.
+Ela contém a lista de taxas encontradas (`rates`) e a lista de erros por item (`errors`) para os pares
+que não foram encontrados.
+*/
+public class CurrencyExchangeBatchResponse {
+    private List<CurrencyExchange> rates = new ArrayList<>();
+    private List<CurrencyExchangeBatchError> errors = new ArrayList<>();
+
+    public List<CurrencyExchange> getRates() {
+        return rates;
+    }
+
+    public void setRates(List<CurrencyExchange> rates) {
+        this.rates = rates;
+    }
+
+    public List<CurrencyExchangeBatchError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<CurrencyExchangeBatchError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+O `CurrencyExchangeCacheListener` é um entity listener do JPA registrado na entidade `CurrencyExchange`
+através da anotação `@EntityListeners`. O Spring Boot configura o Hibernate para criar os listeners
+como beans do Spring, por isso a classe pode receber dependências normalmente.
+
+Sempre que uma linha de `CurrencyExchange` é inserida, atualizada ou removida, o par de moedas é
+removido do `CurrencyPairIndex` e invalidado no `CurrencyExchangeRateCache`. Se houver uma transação
+ativa, as duas invalidações são repetidas depois do commit, para que uma leitura ou recarga concorrente
+feita antes do commit não deixe uma taxa antiga no cache ou no índice.
+
+O índice e o cache são obtidos por um `ObjectProvider` para evitar uma dependência circular entre eles,
+o repositório e o `EntityManagerFactory` que cria este listener.
+*/
+
+package com.microservices.currencyexchangeservice;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class CurrencyExchangeCacheListener {
+    private final ObjectProvider<CurrencyPairIndex> pairIndex;
+
+    private final ObjectProvider<CurrencyExchangeRateCache> rateCache;
+
+    public CurrencyExchangeCacheListener(ObjectProvider<CurrencyPairIndex> pairIndex,
+                                         ObjectProvider<CurrencyExchangeRateCache> rateCache) {
+        this.pairIndex = pairIndex;
+        this.rateCache = rateCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(CurrencyExchange currencyExchange) {
+        String from = currencyExchange.getFrom();
+        String to = currencyExchange.getTo();
+
+        pairIndex.ifAvailable(index -> index.evict(from, to));
+        rateCache.ifAvailable(cache -> cache.evict(from, to));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pairIndex.ifAvailable(index -> index.evict(from, to));
+                    rateCache.ifAvailable(cache -> cache.evict(from, to));
+                }
+            });
+        }
+    }
+}
@@ -1,56 +1,214 @@
 package com.microservices.currencyexchangeservice;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 public class CurrencyExchangeController {
     private Logger logger = LoggerFactory.getLogger(CurrencyExchangeController.class);
 
-    private CurrencyExchangeRepository repository;
+    @Autowired
+    private CurrencyPairIndex pairIndex;
+
+    @Autowired
+    private CurrencyExchangeRateCache rateCache;
 
     @Autowired
     private Environment environment;
 
+    private Counter notFoundCounter;
+
+    @Value("${currency-exchange.http.max-age:60s}")
+    private Duration cacheMaxAge;
+
+    @Value("${currency-exchange.batch.max-size:100}")
+    private int batchMaxSize;
+
+    @Autowired
+    void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.notFoundCounter = Counter.builder("api.errors")
+                .description("Expected error responses, by error type")
+                .tag("type", "CurrencyExchangeNotFound")
+                .tag("status", String.valueOf(HttpStatus.NOT_FOUND.value()))
+                .register(meterRegistry);
+    }
+
     /*
     Nesse trecho de código, temos um método `retrieveExchangeValue` mapeado para o endpoint
     `/currency-exchange/from/{from}/to/{to}` utilizando a anotação `@GetMapping`.
     Isso significa que esse método será executado quando houver uma requisição HTTP GET para
     esse endpoint, onde `{from}` e `{to}` são variáveis de caminho (path variables) que serão extraídas da URL.
 
-    Dentro do método, a primeira ação realizada é chamar o método `findByFromAndTo` do
-    repositório `repository` passando os valores das variáveis `from` e `to`. Esse método
-    é responsável por buscar no banco de dados uma instância da entidade `CurrencyExchange`
-    que corresponda aos valores especificados.
+    Dentro do método, a primeira ação realizada é buscar a taxa no `CurrencyPairIndex`, que guarda
+    toda a tabela em memória com chaves primitivas. Se o par não estiver no índice, a busca é feita
+    no `CurrencyExchangeRateCache` passando os valores das variáveis `from` e `to`. O cache só vai ao
+    banco de dados (através do `findByFromAndTo` do repositório) quando o par ainda não está carregado
+    ou expirou.
 
     Em seguida, é feita uma verificação para garantir que um objeto `CurrencyExchange`
-    tenha sido encontrado. Caso o objeto seja nulo, é lançada uma exceção `RuntimeException`
-    com uma mensagem informando que os dados para a conversão especificada não foram encontrados.
+    tenha sido encontrado. Caso o objeto seja nulo, é devolvida uma resposta 404 no formato
+    `application/problem+json` (`ProblemDetail`), com uma mensagem informando que os dados para
+    a conversão especificada não foram encontrados. Nenhuma exceção é lançada: o erro é apenas contado
+    na métrica `api.errors`.
 
     Após isso, é obtido o valor da propriedade `local.server.port` do objeto `environment`,
     que contém informações do ambiente em que a aplicação está sendo executada.
-    Esse valor do número da porta é utilizado para definir o ambiente no objeto `CurrencyExchange` encontrado.
+    Esse valor do número da porta é utilizado para definir o ambiente em uma cópia do objeto
+    `CurrencyExchange` encontrado, já que a instância do cache é compartilhada entre as requisições.
 
     Por fim, o objeto `CurrencyExchange` é retornado como resposta da requisição, contendo as
     informações da conversão e o ambiente definido.
+
+    A resposta suporta requisições condicionais. O ETag é forte e vem da revisão da tabela de taxas
+    (`CurrencyExchangeRateCache.revision`, incrementada a cada alteração de uma linha) junto com o
+    instante da última alteração e a porta da instância, que também faz parte do corpo. Se o
+    `If-None-Match` (ou o `If-Modified-Since`) da requisição ainda vale, a resposta é um 304 sem corpo,
+    sem criar a cópia da taxa nem serializá-la. O `Cache-Control` (`currency-exchange.http.max-age`)
+    permite que o api-gateway e os clientes guardem a taxa e a revalidem com o ETag.
     */
     @GetMapping("/currency-exchange/from/{from}/to/{to}")
-    public CurrencyExchange retrieveExchangeValue(@PathVariable String from, @PathVariable String to) {
+    public ResponseEntity<CurrencyExchange> retrieveExchangeValue(@PathVariable String from, @PathVariable String to,
+                                                                  WebRequest request) {
         logger.info("retrieveExchangeValue called with {} to {}", from, to);
 
-        CurrencyExchange currencyExchange = repository.findByFromAndTo(from, to);
+        // Lidos antes da busca: se a tabela mudar no meio, o ETag fica antigo e o próximo GET é completo
+        long lastModified = rateCache.lastModified().toEpochMilli();
+        String etag = etag(lastModified);
+
+        CurrencyExchange cachedExchange = pairIndex.find(from, to);
+
+        if (cachedExchange == null) {
+            cachedExchange = rateCache.get(from, to);
+        }
+
+        if (cachedExchange == null) {
+            notFoundCounter.increment();
+
+            return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND,
+                    "unable to find data for " + from + " to " + to)).build();
+        }
+
+        CacheControl cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(withEnvironment(cachedExchange));
+    }
+
+    /*
+    O método `retrieveExchangeValues` é mapeado para `POST /currency-exchange/rates:batchGet` e recebe
+    uma lista de pares de moedas (`from`, `to`) no corpo da requisição.
+
+    Os pares repetidos são removidos e cada par é procurado primeiro no `CurrencyPairIndex`. Os pares
+    que não estão no índice são resolvidos de uma vez pelo `CurrencyExchangeRateCache.getAll`, que só
+    vai ao banco (com uma única consulta `IN`) para os que também não estão no cache.
+
+    Pares não encontrados não lançam `RuntimeException`: eles voltam como erros por item na lista
+    `errors` da resposta, junto com as taxas encontradas na lista `rates`. O mesmo vale para itens
+    inválidos (sem `from` ou `to`), que não chegam ao índice nem ao cache.
+
+    Um lote com mais de `currency-exchange.batch.max-size` itens é recusado com 400 (Bad Request).
+    */
+    @PostMapping("/currency-exchange/rates:batchGet")
+    public CurrencyExchangeBatchResponse retrieveExchangeValues(@RequestBody List<CurrencyPair> pairs) {
+        logger.info("retrieveExchangeValues called with {} pairs", pairs.size());
+
+        if (pairs.size() > batchMaxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "batch has " + pairs.size() + " pairs, the maximum is " + batchMaxSize);
+        }
+
+        CurrencyExchangeBatchResponse response = new CurrencyExchangeBatchResponse();
+
+        Set<CurrencyPair> distinctPairs = new LinkedHashSet<>();
+        for (CurrencyPair pair : pairs) {
+            if (pair == null || isBlank(pair.from()) || isBlank(pair.to())) {
+                response.getErrors().add(new CurrencyExchangeBatchError(pair != null ? pair.from() : null,
+                        pair != null ? pair.to() : null, "from and to are required"));
+                continue;
+            }
+
+            distinctPairs.add(CurrencyPair.of(pair.from(), pair.to()));
+        }
+
+        Map<CurrencyPair, CurrencyExchange> found = new HashMap<>();
+        Set<CurrencyPair> misses = new LinkedHashSet<>();
+        for (CurrencyPair pair : distinctPairs) {
+            CurrencyExchange indexed = pairIndex.find(pair.from(), pair.to());
 
-        if (currencyExchange == null) {
-            throw new RuntimeException("unable to find data for " + from + " to " + to);
+            if (indexed != null) {
+                found.put(pair, indexed);
+            } else {
+                misses.add(pair);
+            }
         }
 
+        if (!misses.isEmpty()) {
+            found.putAll(rateCache.getAll(misses));
+        }
+
+        for (CurrencyPair pair : distinctPairs) {
+            CurrencyExchange currencyExchange = found.get(pair);
+
+            if (currencyExchange != null) {
+                response.getRates().add(withEnvironment(currencyExchange));
+            } else {
+                response.getErrors().add(new CurrencyExchangeBatchError(pair.from(), pair.to(),
+                        "unable to find data for " + pair.from() + " to " + pair.to()));
+            }
+        }
+
+        return response;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private String etag(long lastModified) {
+        return "\"" + rateCache.revision()
+                + "-" + Long.toString(lastModified, 36)
+                + "-" + environment.getProperty("local.server.port") + "\"";
+    }
+
+    private CurrencyExchange withEnvironment(CurrencyExchange cachedExchange) {
+        CurrencyExchange currencyExchange = new CurrencyExchange(
+                cachedExchange.getId(),
+                cachedExchange.getFrom(),
+                cachedExchange.getTo(),
+                cachedExchange.getConversionMultiple()
+        );
+
         String port = environment.getProperty("local.server.port");
         currencyExchange.setEnvironment(port);
 
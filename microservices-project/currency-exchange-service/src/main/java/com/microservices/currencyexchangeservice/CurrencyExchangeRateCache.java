@@ -0,0 +1,136 @@
+/*
+A classe `CurrencyExchangeRateCache` é um cache de leitura (read-through) que fica na frente do
+`CurrencyExchangeRepository.findByFromAndTo`. Como a tabela de taxas é pequena e quase nunca muda,
+não faz sentido ir ao banco (JPA/H2) a cada chamada do endpoint de câmbio.
+
+1. O cache é construído com o Caffeine, com limite de tamanho (`currency-exchange.cache.maximum-size`)
+e tempo de expiração após a escrita (`currency-exchange.cache.time-to-live`), ambos configuráveis.
+
+2. Em um miss, a taxa é carregada do repositório e guardada como uma cópia desacoplada da sessão JPA.
+Pares inexistentes não são guardados. O método `getAll` resolve vários pares de uma vez: os que não
+estão no cache são carregados juntos em uma única consulta (`findByFromInAndToIn`).
+
+3. Quando uma linha de `CurrencyExchange` é salva ou removida, o `CurrencyExchangeCacheListener` chama
+`evict`, que remove o par do cache e incrementa a revisão da tabela de taxas (`revision`).
+
+4. As métricas de hit/miss/tempo de carga são registradas no Micrometer através do `CaffeineCacheMetrics`
+e ficam disponíveis no actuator em `/actuator/metrics/cache.gets` e `/actuator/metrics/cache.load.duration`.
+*/
+
+package com.microservices.currencyexchangeservice;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CurrencyExchangeRateCache {
+    private final CurrencyExchangeRepository repository;
+
+    private final LoadingCache<CurrencyPair, CurrencyExchange> cache;
+
+    private final AtomicLong revision = new AtomicLong();
+
+    private volatile Instant lastModified = Instant.now();
+
+    public CurrencyExchangeRateCache(CurrencyExchangeRepository repository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${currency-exchange.cache.time-to-live:10m}") Duration timeToLive,
+                                     @Value("${currency-exchange.cache.maximum-size:1000}") long maximumSize) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build(new CacheLoader<CurrencyPair, CurrencyExchange>() {
+                    @Override
+                    public CurrencyExchange load(CurrencyPair pair) {
+                        return loadOne(pair);
+                    }
+
+                    @Override
+                    public Map<CurrencyPair, CurrencyExchange> loadAll(Set<? extends CurrencyPair> pairs) {
+                        return loadMany(pairs);
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "currency-exchange-rates");
+    }
+
+    public CurrencyExchange get(String from, String to) {
+        return cache.get(CurrencyPair.of(from, to));
+    }
+
+    public Map<CurrencyPair, CurrencyExchange> getAll(Set<CurrencyPair> pairs) {
+        return cache.getAll(pairs);
+    }
+
+    public void evict(String from, String to) {
+        cache.invalidate(CurrencyPair.of(from, to));
+
+        revision.incrementAndGet();
+        lastModified = Instant.now();
+    }
+
+    public long revision() {
+        return revision.get();
+    }
+
+    public Instant lastModified() {
+        return lastModified;
+    }
+
+    private CurrencyExchange loadOne(CurrencyPair pair) {
+        CurrencyExchange currencyExchange = repository.findByFromAndTo(pair.from(), pair.to());
+
+        if (currencyExchange == null) {
+            return null;
+        }
+
+        pair.intern();
+
+        return detachedCopy(currencyExchange);
+    }
+
+    private Map<CurrencyPair, CurrencyExchange> loadMany(Set<? extends CurrencyPair> pairs) {
+        Set<String> from = new HashSet<>();
+        Set<String> to = new HashSet<>();
+        for (CurrencyPair pair : pairs) {
+            from.add(pair.from());
+            to.add(pair.to());
+        }
+
+        Map<CurrencyPair, CurrencyExchange> loaded = new HashMap<>();
+        for (CurrencyExchange currencyExchange : repository.findByFromInAndToIn(from, to)) {
+            CurrencyPair pair = new CurrencyPair(currencyExchange.getFrom(), currencyExchange.getTo());
+
+            // As cláusulas IN podem trazer combinações que não foram pedidas
+            if (pairs.contains(pair)) {
+                loaded.put(pair.intern(), detachedCopy(currencyExchange));
+            }
+        }
+
+        return loaded;
+    }
+
+    private static CurrencyExchange detachedCopy(CurrencyExchange currencyExchange) {
+        return new CurrencyExchange(
+                currencyExchange.getId(),
+                currencyExchange.getFrom(),
+                currencyExchange.getTo(),
+                currencyExchange.getConversionMultiple()
+        );
+    }
+}
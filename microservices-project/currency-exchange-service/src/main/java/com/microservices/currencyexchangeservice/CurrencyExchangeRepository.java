@@ -15,6 +15,10 @@ objeto `CurrencyExchange` no banco de dados com base nos valores dos campos `fro
 Ele retorna um objeto `CurrencyExchange` correspondente encontrado no banco de dados ou `null`
 se nenhum registro correspondente for encontrado.
 
+O método `findByFromInAndToIn` é usado pela busca em lote: ele carrega, em uma única consulta com
+cláusulas `IN`, todas as linhas cujas moedas de origem e destino estejam nas listas informadas. O
+resultado pode conter combinações a mais, que são descartadas por quem chama o método.
+
 Ao utilizar a interface `CurrencyExchangeRepository`, você pode facilmente interagir com o
 banco de dados, realizar consultas personalizadas e executar operações de CRUD (Create, Read, Update, Delete)
 na entidade `CurrencyExchange`, sem a necessidade de escrever código SQL manualmente.
@@ -26,6 +30,11 @@ package com.microservices.currencyexchangeservice;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CurrencyExchangeRepository extends JpaRepository<CurrencyExchange, Long> {
     CurrencyExchange findByFromAndTo(String from, String to);
+
+    List<CurrencyExchange> findByFromInAndToIn(Collection<String> from, Collection<String> to);
 }
@@ -2,8 +2,11 @@ package com.microservices.currencyexchangeservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+// @EnableScheduling habilita a recarga periódica do CurrencyPairIndex
 @SpringBootApplication
+@EnableScheduling
 public class CurrencyExchangeServiceApplication {
 
 	public static void main(String[] args) {
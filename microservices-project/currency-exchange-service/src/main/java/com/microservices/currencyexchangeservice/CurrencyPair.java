@@ -0,0 +1,34 @@
+/*
+O record `CurrencyPair` representa o par de moedas (`from`, `to`) usado como chave nas consultas de taxa
+de câmbio.
+
+Os pares que realmente existem na tabela `currency_exchange` são "internados" (guardados em um mapa
+estático) através do método `intern()`. Assim, o método `of(from, to)` devolve sempre a mesma instância
+para um par conhecido, sem alocar um objeto novo a cada requisição. Pares desconhecidos (por exemplo,
+vindos de requisições com moedas inexistentes) não são internados, evitando que o mapa cresça sem limite.
+*/
+
+package com.microservices.currencyexchangeservice;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public record CurrencyPair(String from, String to) {
+    private static final Map<String, Map<String, CurrencyPair>> INTERNED = new ConcurrentHashMap<>();
+
+    public static CurrencyPair of(String from, String to) {
+        // ConcurrentHashMap não aceita chaves nulas
+        if (from == null || to == null) {
+            return new CurrencyPair(from, to);
+        }
+
+        Map<String, CurrencyPair> byTo = INTERNED.get(from);
+        CurrencyPair pair = byTo == null ? null : byTo.get(to);
+
+        return pair != null ? pair : new CurrencyPair(from, to);
+    }
+
+    public CurrencyPair intern() {
+        return INTERNED.computeIfAbsent(from, key -> new ConcurrentHashMap<>()).computeIfAbsent(to, key -> this);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+A classe `CurrencyPairIndex` é um índice em memória de toda a tabela `currency_exchange`, pensado para o
+caminho "quente" do endpoint de câmbio.
+
+1. Cada código de moeda ISO tem três letras (A-Z), então cada letra cabe em 5 bits. O par (`from`, `to`)
+é empacotado em um único `int` de 30 bits pelo método `key`, lendo os caracteres diretamente com
+`charAt`, sem criar nenhuma String ou objeto por requisição. Códigos fora desse formato devolvem -1 e
+a busca cai no `CurrencyExchangeRateCache`.
+
+2. As taxas ficam em um mapa de endereçamento aberto (`Table`) com um array `int[]` de chaves e um array
+de valores. A busca faz apenas sondagem linear nos arrays: sem boxing e sem alocação.
+
+3. O índice é carregado a partir do repositório quando a aplicação sobe e recarregado periodicamente
+(`currency-exchange.index.refresh-interval`). Cada recarga monta uma tabela nova e troca a referência
+de uma vez, então as leituras nunca enxergam uma tabela pela metade.
+
+4. Quando uma linha é salva, o `CurrencyExchangeCacheListener` remove o par do índice (criando uma cópia
+da tabela sem ele), antes e depois do commit; até a próxima recarga esse par é atendido pelo cache.
+A tabela fica em um `AtomicReference` e as remoções usam `updateAndGet`, então duas remoções
+simultâneas não perdem nenhuma delas. Uma recarga que leu o banco antes de uma remoção é descartada
+(contador `evictions`), para não devolver ao índice uma taxa antiga.
+*/
+
+package com.microservices.currencyexchangeservice;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class CurrencyPairIndex {
+    private Logger logger = LoggerFactory.getLogger(CurrencyPairIndex.class);
+
+    private final CurrencyExchangeRepository repository;
+
+    private final AtomicReference<Table> table = new AtomicReference<>(Table.EMPTY);
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CurrencyPairIndex(CurrencyExchangeRepository repository) {
+        this.repository = repository;
+    }
+
+    public CurrencyExchange find(String from, String to) {
+        int key = key(from, to);
+
+        return key < 0 ? null : table.get().get(key);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${currency-exchange.index.refresh-interval:PT5M}",
+               fixedDelayString = "${currency-exchange.index.refresh-interval:PT5M}")
+    public void refresh() {
+        long evictionsBefore = evictions.get();
+        Table fresh = Table.of(repository.findAll());
+
+        Table installed = table.updateAndGet(current -> evictions.get() == evictionsBefore ? fresh : current);
+
+        if (installed == fresh) {
+            logger.info("Currency pair index refreshed with {} pairs", fresh.size);
+        } else {
+            logger.info("Currency pair index refresh skipped: pairs were evicted while it was loading");
+        }
+    }
+
+    public void evict(String from, String to) {
+        int key = key(from, to);
+
+        if (key >= 0) {
+            evictions.incrementAndGet();
+            table.updateAndGet(current -> current.without(key));
+        }
+    }
+
+    static int key(String from, String to) {
+        if (from == null || to == null || from.length() != 3 || to.length() != 3) {
+            return -1;
+        }
+
+        int key = 0;
+
+        for (int i = 0; i < 3; i++) {
+            int letter = letter(from.charAt(i));
+            if (letter < 0) return -1;
+            key = (key << 5) | letter;
+        }
+
+        for (int i = 0; i < 3; i++) {
+            int letter = letter(to.charAt(i));
+            if (letter < 0) return -1;
+            key = (key << 5) | letter;
+        }
+
+        return key;
+    }
+
+    private static int letter(char c) {
+        // 'A'..'Z' viram 1..26, assim nenhuma chave válida é 0 (0 marca posição vazia na tabela)
+        return c >= 'A' && c <= 'Z' ? c - 'A' + 1 : -1;
+    }
+
+    private static final class Table {
+        private static final Table EMPTY = new Table(new int[1], new CurrencyExchange[1], 0);
+
+        private final int[] keys;
+        private final CurrencyExchange[] values;
+        private final int mask;
+        private final int size;
+
+        private Table(int[] keys, CurrencyExchange[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 1;
+            this.size = size;
+        }
+
+        static Table of(List<CurrencyExchange> exchanges) {
+            int capacity = Integer.highestOneBit(Math.max(exchanges.size(), 1) * 2 - 1) << 1;
+            Table table = new Table(new int[capacity], new CurrencyExchange[capacity], 0);
+
+            int size = 0;
+            for (CurrencyExchange exchange : exchanges) {
+                int key = key(exchange.getFrom(), exchange.getTo());
+                if (key < 0) continue;
+
+                CurrencyExchange copy = new CurrencyExchange(exchange.getId(), exchange.getFrom(),
+                        exchange.getTo(), exchange.getConversionMultiple());
+                if (table.put(key, copy)) size++;
+            }
+
+            return new Table(table.keys, table.values, size);
+        }
+
+        CurrencyExchange get(int key) {
+            int slot = hash(key) & mask;
+
+            while (true) {
+                int current = keys[slot];
+                if (current == key) return values[slot];
+                if (current == 0) return null;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        Table without(int key) {
+            if (get(key) == null) return this;
+
+            int capacity = keys.length;
+            Table copy = new Table(new int[capacity], new CurrencyExchange[capacity], 0);
+
+            for (int i = 0; i < capacity; i++) {
+                if (keys[i] != 0 && keys[i] != key) {
+                    copy.put(keys[i], values[i]);
+                }
+            }
+
+            return new Table(copy.keys, copy.values, size - 1);
+        }
+
+        private boolean put(int key, CurrencyExchange value) {
+            int slot = hash(key) & mask;
+
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            boolean added = keys[slot] == 0;
+            keys[slot] = key;
+            values[slot] = value;
+
+            return added;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+A classe `DbPoolEndpoint` cria o endpoint do actuator `/actuator/dbpool`, que mostra em um só lugar o
+estado de cada pool de conexões HikariCP da aplicação. Com ele é possível saber se a latência de uma
+requisição vem da espera por uma conexão ou da consulta em si.
+
+1. Estado atual do pool (`HikariPoolMXBean`): conexões ativas, ociosas, total e `pending`, que é o
+número de threads esperando por uma conexão neste momento.
+
+2. `acquire`: o tempo de espera por uma conexão (métrica `hikaricp.connections.acquire`), com a
+quantidade, a média, o máximo e o histograma acumulado por faixa (`DbPoolConfiguration.ACQUIRE_BUCKETS`),
+além do número de esperas que terminaram em timeout (`hikaricp.connections.timeout`).
+
+3. `usage`: por quanto tempo as conexões ficaram emprestadas (`hikaricp.connections.usage`). O campo
+`leakSuspects` conta os empréstimos mais longos que o `leakDetectionThreshold`, os mesmos casos em que
+o HikariCP registra um aviso de possível vazamento no log.
+
+Os tempos são informados em milissegundos.
+*/
+
+package com.microservices.currencyexchangeservice;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Endpoint(id = "dbpool")
+public class DbPoolEndpoint {
+    private ObjectProvider<DataSource> dataSources;
+    private MeterRegistry meterRegistry;
+
+    public DbPoolEndpoint(ObjectProvider<DataSource> dataSources, MeterRegistry meterRegistry) {
+        this.dataSources = dataSources;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, PoolReport> pools() {
+        Map<String, PoolReport> pools = new LinkedHashMap<>();
+
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+
+            if (hikari != null && hikari.getPoolName() != null && !pools.containsKey(hikari.getPoolName())) {
+                pools.put(hikari.getPoolName(), report(hikari));
+            }
+        });
+
+        return pools;
+    }
+
+    private PoolReport report(HikariDataSource dataSource) {
+        String pool = dataSource.getPoolName();
+        HikariPoolMXBean mxBean = dataSource.getHikariPoolMXBean();
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", pool).counter();
+
+        return new PoolReport(
+                mxBean != null ? mxBean.getActiveConnections() : 0,
+                mxBean != null ? mxBean.getIdleConnections() : 0,
+                mxBean != null ? mxBean.getTotalConnections() : 0,
+                mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0,
+                dataSource.getMaximumPoolSize(),
+                dataSource.getMinimumIdle(),
+                dataSource.getConnectionTimeout(),
+                dataSource.getLeakDetectionThreshold(),
+                acquireReport(acquire, timeouts),
+                usageReport(usage, dataSource.getLeakDetectionThreshold())
+        );
+    }
+
+    private static AcquireReport acquireReport(Timer acquire, Counter timeouts) {
+        long timeoutCount = timeouts != null ? (long) timeouts.count() : 0;
+
+        if (acquire == null) {
+            return new AcquireReport(0, 0, 0, Map.of(), timeoutCount);
+        }
+
+        HistogramSnapshot snapshot = acquire.takeSnapshot();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            histogram.put("le_" + formatMillis(bucket.bucket(TimeUnit.MILLISECONDS)) + "ms", (long) bucket.count());
+        }
+
+        return new AcquireReport(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), histogram, timeoutCount);
+    }
+
+    private static UsageReport usageReport(Timer usage, long leakDetectionThresholdMillis) {
+        if (usage == null) {
+            return new UsageReport(0, 0, 0, 0);
+        }
+
+        HistogramSnapshot snapshot = usage.takeSnapshot();
+        long leakSuspects = 0;
+
+        if (leakDetectionThresholdMillis > 0) {
+            for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                if (bucket.bucket(TimeUnit.MILLISECONDS) == leakDetectionThresholdMillis) {
+                    leakSuspects = snapshot.count() - (long) bucket.count();
+                }
+            }
+        }
+
+        return new UsageReport(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), leakSuspects);
+    }
+
+    private static String formatMillis(double millis) {
+        return millis == Math.rint(millis) ? String.valueOf((long) millis) : String.valueOf(millis);
+    }
+
+    public record PoolReport(int active, int idle, int total, int pending,
+                             int maximumPoolSize, int minimumIdle,
+                             long connectionTimeoutMs, long leakDetectionThresholdMs,
+                             AcquireReport acquire, UsageReport usage) {
+    }
+
+    public record AcquireReport(long count, double meanMs, double maxMs, Map<String, Long> histogram, long timeouts) {
+    }
+
+    public record UsageReport(long count, double meanMs, double maxMs, long leakSuspects) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservices.currencyexchangeservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@AutoConfigureMockMvc
+class CurrencyExchangeConditionalGetTest {
+    private static final String URL = "/currency-exchange/from/USD/to/INR";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyExchangeRepository repository;
+
+    @Test
+    void notModifiedWhenETagMatches() throws Exception {
+        String etag = fetch().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void notModifiedWhenUnchangedSinceLastModified() throws Exception {
+        String lastModified = fetch().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void etagChangesAfterRateUpdate() throws Exception {
+        String etag = fetch().getResponse().getHeader(HttpHeaders.ETAG);
+
+        CurrencyExchange exchange = repository.findByFromAndTo("USD", "INR");
+        exchange.setConversionMultiple(exchange.getConversionMultiple().add(BigDecimal.ONE));
+        repository.save(exchange);
+
+        MvcResult result = mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    private MvcResult fetch() throws Exception {
+        return mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
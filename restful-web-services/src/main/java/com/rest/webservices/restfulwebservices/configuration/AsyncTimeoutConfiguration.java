@@ -0,0 +1,42 @@
+/*
+A classe `AsyncTimeoutConfiguration` permite que um endpoint assíncrono (`StreamingResponseBody`,
+`Callable`) use um timeout próprio, sem mudar o `spring.mvc.async.request-timeout` de toda a aplicação.
+
+O método do controller guarda a duração no atributo `TIMEOUT_ATTRIBUTE` da requisição. Antes do
+processamento assíncrono começar, o `CallableProcessingInterceptor` registrado aqui lê esse atributo e
+o aplica na requisição assíncrona. Requisições sem o atributo continuam com o timeout padrão.
+
+Hoje só a exportação em `/jpa/export` usa esse atributo (ver `UserExportResource`).
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@Configuration(proxyBeanMethods = false)
+public class AsyncTimeoutConfiguration implements WebMvcConfigurer {
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutConfiguration.class.getName() + ".timeout";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+                if (timeout instanceof Duration duration && request instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(duration.toMillis());
+                }
+            }
+        });
+    }
+}
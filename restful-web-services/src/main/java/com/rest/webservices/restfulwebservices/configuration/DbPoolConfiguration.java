@@ -0,0 +1,102 @@
+/*
+A classe `DbPoolConfiguration` aplica as propriedades `db-pool.*` (`DbPoolProperties`) ao pool de
+conexões HikariCP criado pelo Spring Boot.
+
+1. O `BeanPostProcessor` altera o `HikariDataSource` antes da sua inicialização, ou seja, antes que
+qualquer conexão seja aberta. Depois que o pool começa a funcionar, o HikariCP não permite mais
+mudar essas configurações.
+
+2. As propriedades são obtidas por um `ObjectProvider`, pois um `BeanPostProcessor` é criado antes
+dos outros beans, e resolvê-las cedo demais impediria que elas fossem validadas e vinculadas.
+
+3. Além do pool, também é configurado o histograma da métrica `hikaricp.connections.acquire` (tempo
+de espera por uma conexão) com limites fixos (SLOs). Esses limites e o de `hikaricp.connections.usage`
+são usados pelo endpoint `/actuator/dbpool`. Os limites de `usage` incluem o
+`leakDetectionThreshold`, para contar as conexões que ficaram emprestadas por mais tempo que ele.
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DbPoolProperties.class)
+public class DbPoolConfiguration {
+    static final Duration[] ACQUIRE_BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5)
+    };
+
+    static final Duration[] USAGE_BUCKETS = {
+            Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofSeconds(10)
+    };
+
+    @Bean
+    public static BeanPostProcessor dbPoolPostProcessor(ObjectProvider<DbPoolProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    apply(properties.getObject(), dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterFilter dbPoolHistogramMeterFilter(DbPoolProperties properties) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("hikaricp.connections.acquire")) {
+                    return DistributionStatisticConfig.builder()
+                            .serviceLevelObjectives(slos(Arrays.stream(ACQUIRE_BUCKETS)))
+                            .build()
+                            .merge(config);
+                }
+
+                if (id.getName().equals("hikaricp.connections.usage")) {
+                    Duration threshold = properties.getLeakDetectionThreshold();
+                    Stream<Duration> buckets = Arrays.stream(USAGE_BUCKETS);
+                    if (!threshold.isZero()) {
+                        buckets = Stream.concat(buckets, Stream.of(threshold));
+                    }
+
+                    return DistributionStatisticConfig.builder()
+                            .serviceLevelObjectives(slos(buckets))
+                            .build()
+                            .merge(config);
+                }
+
+                return config;
+            }
+        };
+    }
+
+    private static void apply(DbPoolProperties properties, HikariDataSource dataSource) {
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setMinimumIdle(properties.getMinimumIdle());
+        dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        dataSource.setIdleTimeout(properties.getIdleTimeout().toMillis());
+        dataSource.setMaxLifetime(properties.getMaxLifetime().toMillis());
+        dataSource.setLeakDetectionThreshold(properties.getLeakDetectionThreshold().toMillis());
+    }
+
+    // Os SLOs de um Timer são informados em nanossegundos
+    private static double[] slos(Stream<Duration> durations) {
+        return durations.mapToDouble(Duration::toNanos).sorted().distinct().toArray();
+    }
+}
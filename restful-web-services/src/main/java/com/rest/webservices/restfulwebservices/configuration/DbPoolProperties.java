@@ -0,0 +1,112 @@
+/*
+A classe `DbPoolProperties` reúne as configurações do pool de conexões (HikariCP) usadas pela
+aplicação, com o prefixo `db-pool`. Os valores são validados na inicialização (`@Validated`): uma
+configuração inválida impede a aplicação de subir, em vez de aparecer como lentidão em produção.
+
+- `maximumPoolSize`: número máximo de conexões abertas com o banco.
+- `minimumIdle`: conexões ociosas mantidas abertas (não pode passar de `maximumPoolSize`).
+- `connectionTimeout`: tempo máximo que uma requisição espera por uma conexão livre.
+- `idleTimeout` e `maxLifetime`: quando conexões ociosas ou antigas são fechadas e recriadas.
+- `leakDetectionThreshold`: tempo com a conexão emprestada a partir do qual ela é considerada um
+possível vazamento (0 desliga). Também é o limite usado na contagem de `leakSuspects` do endpoint
+`/actuator/dbpool`.
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "db-pool")
+public class DbPoolProperties {
+    @Min(1)
+    @Max(200)
+    private int maximumPoolSize = 10;
+
+    @Min(0)
+    private int minimumIdle = 10;
+
+    @NotNull
+    private Duration connectionTimeout = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @NotNull
+    private Duration maxLifetime = Duration.ofMinutes(30);
+
+    @NotNull
+    private Duration leakDetectionThreshold = Duration.ZERO;
+
+    @AssertTrue(message = "db-pool.minimum-idle must not be greater than db-pool.maximum-pool-size")
+    public boolean isMinimumIdleWithinPoolSize() {
+        return minimumIdle <= maximumPoolSize;
+    }
+
+    // O HikariCP não aceita timeouts de conexão menores que 250 ms
+    @AssertTrue(message = "db-pool.connection-timeout must be at least 250ms")
+    public boolean isConnectionTimeoutValid() {
+        return connectionTimeout == null || connectionTimeout.toMillis() >= 250;
+    }
+
+    // O HikariCP ignora valores de detecção de vazamento abaixo de 2 segundos
+    @AssertTrue(message = "db-pool.leak-detection-threshold must be 0 or at least 2s")
+    public boolean isLeakDetectionThresholdValid() {
+        return leakDetectionThreshold == null || leakDetectionThreshold.isZero() || leakDetectionThreshold.toMillis() >= 2000;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+A classe `ReplicaDataSourceConfiguration` monta o acesso ao banco com réplica de leitura, ligado pela
+propriedade `replica.datasource.enabled=true` (desligado por padrão). Quando está desligada, o Spring
+Boot cria o `DataSource` normalmente a partir de `spring.datasource.*`.
+
+1. São criados dois pools HikariCP: `primary`, a partir de `spring.datasource.*`, e `replica`, a
+partir de `replica.datasource.*`. As configurações `db-pool.*` valem para os dois, e cada um tem as
+suas próprias métricas `hikaricp.*` e a sua entrada no `/actuator/dbpool`.
+
+2. O bean `dataSource`, marcado como `@Primary` e usado pelo JPA, é um `LazyConnectionDataSourceProxy`
+em volta do `ReplicaRoutingDataSource`, que envia as transações somente leitura para a réplica.
+
+3. O `ReplicaLagMonitor` mede o atraso da réplica a cada `replica.datasource.lag-check-interval` e
+desvia as leituras para o banco principal quando ela está atrasada ou fora do ar.
+
+Para testar localmente, os dois bancos podem ser instâncias H2 diferentes, usando como
+`lag-query` uma consulta que devolva o atraso simulado (por exemplo `SELECT 0`).
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "replica.datasource.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@EnableScheduling
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties.getLagQuery(), properties.getMaxLag(), meterRegistry);
+        monitor.check();
+
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, meterRegistry));
+    }
+}
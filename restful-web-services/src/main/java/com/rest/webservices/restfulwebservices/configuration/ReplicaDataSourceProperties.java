@@ -0,0 +1,85 @@
+/*
+A classe `ReplicaDataSourceProperties` reúne as configurações da réplica de leitura do banco, com o
+prefixo `replica.datasource`. A réplica só é usada quando `replica.datasource.enabled=true`.
+
+- `url`, `username` e `password`: conexão com a réplica (o pool usa as mesmas configurações
+`db-pool.*` do banco principal).
+- `maxLag`: atraso máximo aceito na replicação. Acima disso, as leituras voltam para o banco principal.
+- `lagQuery`: consulta executada na réplica para medir o atraso, em segundos. Se começar com `SHOW`
+(por exemplo `SHOW REPLICA STATUS` no MySQL), o valor é lido da coluna `Seconds_Behind_Source`;
+caso contrário, da primeira coluna. Um resultado nulo indica que a replicação está parada.
+- `lagCheckInterval`: intervalo entre as medições de atraso.
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "replica.datasource")
+public class ReplicaDataSourceProperties {
+    private boolean enabled;
+    private String url;
+    private String username;
+    private String password;
+    private Duration maxLag = Duration.ofSeconds(10);
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+}
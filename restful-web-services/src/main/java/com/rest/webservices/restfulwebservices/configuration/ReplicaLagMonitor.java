@@ -0,0 +1,97 @@
+/*
+A classe `ReplicaLagMonitor` mede periodicamente o atraso da réplica de leitura, executando a
+consulta `replica.datasource.lag-query` nela, e decide se a réplica pode receber leituras.
+
+1. A réplica é considerada disponível quando a consulta funciona e o atraso é menor ou igual a
+`replica.datasource.max-lag`. Um erro de conexão ou um atraso nulo (replicação parada) a deixam
+indisponível até a próxima medição bem-sucedida.
+
+2. O resultado fica em um campo `volatile`, então o `ReplicaRoutingDataSource` consulta o estado
+a cada conexão sem acessar o banco.
+
+3. As métricas `db.replica.lag` (atraso em segundos) e `db.replica.available` (1 ou 0) mostram o
+estado atual no actuator.
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+public class ReplicaLagMonitor implements BooleanSupplier {
+    private Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.datasource.lag-check-interval:PT5S}")
+    public void check() {
+        try {
+            Double lag = queryLag();
+            boolean wasAvailable = available;
+
+            lagSeconds = lag != null ? lag : Double.NaN;
+            available = lag != null && lag <= maxLag.toSeconds();
+
+            if (wasAvailable != available) {
+                logger.info("Replica {} for reads (lag: {}s)", available ? "enabled" : "disabled", lag);
+            }
+        } catch (SQLException e) {
+            if (available) {
+                logger.warn("Replica disabled for reads: {}", e.getMessage());
+            }
+
+            lagSeconds = Double.NaN;
+            available = false;
+        }
+    }
+
+    private Double queryLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+
+            if (!resultSet.next()) {
+                return null;
+            }
+
+            Object value = lagQuery.trim().regionMatches(true, 0, "SHOW", 0, 4)
+                    ? resultSet.getObject("Seconds_Behind_Source")
+                    : resultSet.getObject(1);
+
+            return value instanceof Number number ? number.doubleValue() : null;
+        }
+    }
+}
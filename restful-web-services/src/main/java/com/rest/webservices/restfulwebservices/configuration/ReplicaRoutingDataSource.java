@@ -0,0 +1,64 @@
+/*
+A classe `ReplicaRoutingDataSource` é um `AbstractRoutingDataSource` que escolhe, a cada conexão
+pedida, entre o banco principal (`PRIMARY`) e a réplica de leitura (`REPLICA`).
+
+1. Transações somente leitura (`@Transactional(readOnly = true)`) vão para a réplica. O Spring Data só
+aplica isso sozinho aos métodos herdados, como `findAll` e `findById`; as consultas declaradas
+dependem da anotação nas interfaces `UserRepository` e `PostRepository`. Todo o resto, inclusive
+qualquer acesso fora de transação, vai para o banco principal.
+
+2. Se a réplica estiver indisponível ou atrasada demais (ver `ReplicaLagMonitor`), as leituras voltam
+para o banco principal, e isso é contado na métrica `db.routing.fallback`.
+
+3. Cada conexão entregue é contada em `db.routing.connections`, com a tag `target` (`primary` ou `replica`).
+
+Este data source precisa ser envolvido por um `LazyConnectionDataSourceProxy`: assim a conexão só é
+obtida no primeiro comando SQL, quando a transação já foi marcada como somente leitura.
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Target { PRIMARY, REPLICA }
+
+    private final BooleanSupplier replicaAvailable;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaAvailable,
+                                    MeterRegistry meterRegistry) {
+        this.replicaAvailable = replicaAvailable;
+        this.primaryConnections = meterRegistry.counter("db.routing.connections", "target", "primary");
+        this.replicaConnections = meterRegistry.counter("db.routing.connections", "target", "replica");
+        this.fallbacks = meterRegistry.counter("db.routing.fallback");
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (replicaAvailable.getAsBoolean()) {
+                replicaConnections.increment();
+                return Target.REPLICA;
+            }
+
+            fallbacks.increment();
+        }
+
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+}
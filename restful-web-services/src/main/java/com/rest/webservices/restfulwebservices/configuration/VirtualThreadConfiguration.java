@@ -0,0 +1,56 @@
+/*
+A classe `VirtualThreadConfiguration` habilita um modo opcional de execução com virtual threads,
+ligado pela propriedade `spring.threads.virtual.enabled=true` (desligado por padrão).
+
+1. O `TomcatProtocolHandlerCustomizer` troca o pool de threads de plataforma do Tomcat por um executor
+que cria uma virtual thread por requisição. Chamadas bloqueantes (Feign, RestTemplate, JPA) deixam de
+prender uma thread do sistema operacional enquanto esperam o I/O.
+
+2. O bean `applicationTaskExecutor` (também registrado como `taskExecutor`) faz com que os métodos
+`@Async` rodem em virtual threads. O Spring MVC usa o mesmo executor no processamento assíncrono
+(`StreamingResponseBody`, `Callable`), então as respostas escritas em streaming também passam para
+virtual threads.
+
+3. Os clientes Feign e RestTemplate executam a chamada HTTP na própria thread de quem chama, então com o
+Tomcat em virtual threads eles também passam a bloquear apenas a virtual thread.
+
+Virtual threads exigem Java 21. Como o projeto ainda compila com Java 17, o executor é obtido por
+reflexão; se o modo for ligado em uma JVM mais antiga, a aplicação falha na inicialização com uma
+mensagem clara. O nome da propriedade é o mesmo usado pelo Spring Boot 3.2, que tem suporte nativo.
+*/
+
+package com.rest.webservices.restfulwebservices.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true requires Java 21 or newer", ex);
+        }
+    }
+}
@@ -21,28 +21,32 @@ sobre o erro, como a data e hora em que ocorreu, a mensagem de erro e a descriç
 representa a resposta HTTP com o corpo contendo os detalhes do erro. No caso de
 exceções gerais (`Exception`), é retornado um código de status HTTP 500 (INTERNAL_SERVER_ERROR).
 
-6. O método `handleUserNotFoundException(Exception ex, WebRequest request)` é
-anotado com `@ExceptionHandler(UserNotFoundException.class)` e é responsável por
-tratar a exceção `UserNotFoundException`, que é uma exceção personalizada definida anteriormente.
+6. O método `handleNotFoundException(NotFoundException ex)` é anotado com
+`@ExceptionHandler(NotFoundException.class)` e é responsável por tratar as exceções de recurso não
+encontrado, como a `UserNotFoundException`, que é uma exceção personalizada definida anteriormente.
 
-7. Dentro desse método, também é criado um objeto `ErrorDetails` com as informações do erro.
+7. Como um 404 é um resultado esperado, essas exceções não têm stack trace (ver `NotFoundException`) e
+a resposta é montada pelo `ProblemResponses`, que conta o erro na métrica `api.errors`.
 
-8. É retornado uma instância de `ResponseEntity<ErrorDetails>` com um código de
+8. É retornado um `ResponseEntity` com um `ProblemDetail` (`application/problem+json`) e o código de
 status HTTP 404 (NOT_FOUND), indicando que o recurso solicitado não foi encontrado.
 
 Resumindo, a classe `CustomizeResponseEntityExceptionHandler` é um controlador de
 exceções personalizadas em uma aplicação RESTful. Ela estende `ResponseEntityExceptionHandler`
-e fornece métodos para tratar exceções gerais e uma exceção personalizada (`UserNotFoundException`).
+e fornece métodos para tratar exceções gerais e as exceções de recurso não encontrado (`NotFoundException`).
 Esses métodos constroem um objeto `ErrorDetails` com informações sobre o erro e retornam uma
 resposta HTTP com o corpo contendo os detalhes do erro e o código de status apropriado.
 */
 
 package com.rest.webservices.restfulwebservices.exception;
 
-import com.rest.webservices.restfulwebservices.user.UserNotFoundException;
+import com.rest.webservices.restfulwebservices.jpa.InvalidCursorException;
+import com.rest.webservices.restfulwebservices.user.InvalidFieldsException;
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -54,6 +58,12 @@ import java.time.LocalDateTime;
 
 @ControllerAdvice
 public class CustomizeResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+    private ProblemResponses problemResponses;
+
+    public CustomizeResponseEntityExceptionHandler(ProblemResponses problemResponses) {
+        this.problemResponses = problemResponses;
+    }
+
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<ErrorDetails> handleAllException(Exception ex, WebRequest request) throws Exception {
         ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
@@ -61,11 +71,27 @@ public class CustomizeResponseEntityExceptionHandler extends ResponseEntityExcep
         return new ResponseEntity<ErrorDetails>(errorDetails, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    @ExceptionHandler(UserNotFoundException.class)
-    public final ResponseEntity<ErrorDetails> handleUserNotFoundException(Exception ex, WebRequest request) throws Exception {
+    @ExceptionHandler(NotFoundException.class)
+    public final ResponseEntity<ProblemDetail> handleNotFoundException(NotFoundException ex) {
+        return problemResponses.notFound(ex.getClass(), ex.getMessage());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public final ResponseEntity<ErrorDetails> handleConstraintViolationException(ConstraintViolationException ex, WebRequest request) throws Exception {
+        String message = ex.getConstraintViolations().isEmpty()
+                ? ex.getMessage()
+                : "Total Errors:" + ex.getConstraintViolations().size() +
+                        " First Error:" + ex.getConstraintViolations().iterator().next().getMessage();
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), message, request.getDescription(false));
+
+        return new ResponseEntity<ErrorDetails>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({InvalidCursorException.class, InvalidFieldsException.class})
+    public final ResponseEntity<ErrorDetails> handleInvalidRequestParameterException(Exception ex, WebRequest request) throws Exception {
         ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
 
-        return new ResponseEntity<ErrorDetails>(errorDetails, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<ErrorDetails>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
     /*
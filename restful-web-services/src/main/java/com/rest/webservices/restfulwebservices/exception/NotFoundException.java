@@ -0,0 +1,13 @@
+/*
+A classe `NotFoundException` é a base das exceções de recurso não encontrado (404), como a
+`UserNotFoundException`. Um 404 é um resultado esperado, então a exceção é criada sem stack trace
+(`super(message, null, false, false)`). As respostas são montadas pelo `ProblemResponses`.
+*/
+
+package com.rest.webservices.restfulwebservices.exception;
+
+public abstract class NotFoundException extends RuntimeException {
+    protected NotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
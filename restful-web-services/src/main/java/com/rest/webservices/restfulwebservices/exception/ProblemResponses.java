@@ -0,0 +1,51 @@
+/*
+A classe `ProblemResponses` monta as respostas dos erros esperados, como os 404 de recurso não
+encontrado, no formato Problem Details (RFC 7807, `application/problem+json`) com o `ProblemDetail`
+do Spring.
+
+1. `notFound` devolve um `ResponseEntity` com status 404 e um `ProblemDetail` no corpo. Os
+controladores podem retorná-lo diretamente nas leituras mais chamadas (`retrieveUser`), sem lançar
+exceção nenhuma. As demais `NotFoundException` lançadas chegam aqui pelo
+`CustomizeResponseEntityExceptionHandler`.
+
+2. Em vez de registrar cada 404 no log, cada resposta incrementa o contador `api.errors`, com as tags
+`type` (o nome da exceção, por exemplo `UserNotFoundException`) e `status`. Os contadores são criados
+uma vez por tipo e guardados em um mapa, então não há busca no `MeterRegistry` a cada erro.
+*/
+
+package com.rest.webservices.restfulwebservices.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ProblemResponses {
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Class<?>, Counter> notFoundCounters = new ConcurrentHashMap<>();
+
+    public ProblemResponses(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> ResponseEntity<T> notFound(Class<? extends NotFoundException> type, String detail) {
+        notFoundCounters.computeIfAbsent(type, this::notFoundCounter).increment();
+
+        return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, detail)).build();
+    }
+
+    private Counter notFoundCounter(Class<?> type) {
+        return Counter.builder("api.errors")
+                .description("Expected error responses, by error type")
+                .tag("type", type.getSimpleName())
+                .tag("status", String.valueOf(HttpStatus.NOT_FOUND.value()))
+                .register(meterRegistry);
+    }
+}
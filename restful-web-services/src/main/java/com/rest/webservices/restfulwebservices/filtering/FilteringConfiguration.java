@@ -0,0 +1,21 @@
+/*
+A classe `FilteringConfiguration` registra um `SimpleFilterProvider` com o `RequestFieldsFilter` como
+filtro padrão no `ObjectMapper` da aplicação, através de um `Jackson2ObjectMapperBuilderCustomizer`. O
+customizador é aplicado pelo Spring Boot a todos os mappers criados pelo builder (JSON, XML e as cópias
+usadas pelo Spring HATEOAS), então a seleção de campos funciona em qualquer formato de resposta.
+*/
+
+package com.rest.webservices.restfulwebservices.filtering;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FilteringConfiguration {
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer requestFieldsFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setDefaultFilter(new RequestFieldsFilter()));
+    }
+}
@@ -7,64 +7,69 @@ anotações `@GetMapping`. Vamos analisar cada um deles:
 
 1. Método `filtering()`:
    - Este método responde ao endpoint "/filtering".
-   - Cria uma instância da classe `SomeBean` com os valores "value1", "value2" e "value3".
-   - Em seguida, cria um objeto `MappingJacksonValue` e o inicializa com a instância `someBean`.
-   - Define um filtro `SimpleBeanPropertyFilter` para filtrar todas as propriedades, exceto "filed1" e "field3".
-   - Cria um provedor de filtros `SimpleFilterProvider` e adiciona o filtro com o nome "SomeBeanFilter".
-   - Define os filtros no objeto `MappingJacksonValue`.
-   - Retorna o objeto `MappingJacksonValue`, que será convertido em JSON e enviado como resposta.
+   - Escolhe os campos que serão serializados: os do parâmetro `fields` (por exemplo
+   `/filtering?fields=field1,field2`) ou, sem ele, "field1" e "field3".
+   - Um campo que não existe no `SomeBean` gera uma `InvalidFieldsException` (400 Bad Request),
+   a mesma usada pelo parâmetro `fields` das APIs de usuários.
+   - Registra essa escolha na requisição atual (`RequestFieldsFilter`).
+   - Retorna uma instância da classe `SomeBean` com os valores "value1", "value2" e "value3".
 
 2. Método `filteringList()`:
    - Este método responde ao endpoint "/filtering-list".
-   - Cria uma lista de instâncias da classe `SomeBean` com os valores "value4", "value5" e "value6".
-   - Em seguida, cria um objeto `MappingJacksonValue` e o inicializa com a lista.
-   - Define um filtro `SimpleBeanPropertyFilter` para filtrar todas as propriedades, exceto "filed2" e "field3".
-   - Cria um provedor de filtros `SimpleFilterProvider` e adiciona o filtro com o nome "SomeBeanFilter".
-   - Define os filtros no objeto `MappingJacksonValue`.
-   - Retorna o objeto `MappingJacksonValue`, que será convertido em JSON e enviado como resposta.
-
-No geral, esse controlador usa o `MappingJacksonValue` em combinação com
-`SimpleBeanPropertyFilter` e `SimpleFilterProvider` para filtrar quais propriedades de um
-objeto ou lista são incluídas na resposta JSON. Os filtros são adicionados usando um nome de
-filtro personalizado ("SomeBeanFilter" neste caso) para que possam ser aplicados aos objetos
-`MappingJacksonValue`.
+   - Faz o mesmo (inclusive a validação), com os campos padrão "field2" e "field3".
+   - Retorna uma lista de instâncias da classe `SomeBean` com os valores "value4", "value5" e "value6".
+
+O filtro é aplicado pelo `ObjectMapper` da aplicação, que já tem o `RequestFieldsFilter`
+registrado (ver `FilteringConfiguration`). Assim, os serializadores do Jackson são reaproveitados entre
+as requisições, em vez de um `SimpleFilterProvider` e um `MappingJacksonValue` novos a cada chamada, e
+a resposta continua passando pela negociação de conteúdo (JSON ou XML, conforme o cabeçalho `Accept`).
 */
 
 package com.rest.webservices.restfulwebservices.filtering;
 
-import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
-import org.springframework.http.converter.json.MappingJacksonValue;
+import com.rest.webservices.restfulwebservices.user.InvalidFieldsException;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 public class FilteringController {
-    @GetMapping("/filtering")
-    public MappingJacksonValue filtering() {
-        SomeBean someBean = new SomeBean("value1", "value2", "value3");
+    private static final Set<String> ALL_FIELDS = Set.of("field1", "field2", "field3");
+    private static final Set<String> DEFAULT_FIELDS = Set.of("field1", "field3");
+    private static final Set<String> DEFAULT_LIST_FIELDS = Set.of("field2", "field3");
 
-        MappingJacksonValue mappingJacksonValue =new MappingJacksonValue(someBean);
-        SimpleBeanPropertyFilter filter = SimpleBeanPropertyFilter.filterOutAllExcept("filed1", "field3");
-        FilterProvider filters = new SimpleFilterProvider().addFilter("SomeBeanFilter", filter);
-        mappingJacksonValue.setFilters(filters);
+    @GetMapping("/filtering")
+    public SomeBean filtering(@RequestParam(required = false) Set<String> fields) {
+        RequestFieldsFilter.select(parse(fields, DEFAULT_FIELDS));
 
-        return mappingJacksonValue;
+        return new SomeBean("value1", "value2", "value3");
     }
 
     @GetMapping("/filtering-list")
-    public MappingJacksonValue filteringList() {
-        List<SomeBean> list = Arrays.asList(new SomeBean("value4", "value5", "value6"));
+    public List<SomeBean> filteringList(@RequestParam(required = false) Set<String> fields) {
+        RequestFieldsFilter.select(parse(fields, DEFAULT_LIST_FIELDS));
+
+        return Arrays.asList(new SomeBean("value4", "value5", "value6"));
+    }
+
+    private static Set<String> parse(Set<String> fields, Set<String> defaults) {
+        if (fields == null) return defaults;
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+
+            if (!ALL_FIELDS.contains(name)) throw new InvalidFieldsException("fields:" + name);
 
-        MappingJacksonValue mappingJacksonValue = new MappingJacksonValue(list);
-        SimpleBeanPropertyFilter filter = SimpleBeanPropertyFilter.filterOutAllExcept("filed2", "field3");
-        FilterProvider filters = new SimpleFilterProvider().addFilter("SomeBeanFilter", filter);
-        mappingJacksonValue.setFilters(filters);
+            selected.add(name);
+        }
 
-        return mappingJacksonValue;
+        return selected;
     }
 }
@@ -0,0 +1,59 @@
+/*
+A classe `RequestFieldsFilter` aplica a seleção de campos (`?fields=`) da requisição atual às classes
+anotadas com `@JsonFilter`, como o `User` e o `SomeBean`. Ela é o filtro padrão do `SimpleFilterProvider`
+registrado no `ObjectMapper` da aplicação (ver `FilteringConfiguration`).
+
+1. O controlador chama `select(campos)`, que guarda um `filterOutAllExcept(campos)` como atributo da
+requisição atual (`RequestContextHolder`).
+
+2. Durante a serialização, o filtro repassa cada propriedade para o filtro guardado na requisição. Se a
+requisição não escolheu campos, ou se a serialização acontece fora de uma requisição, todos os campos
+são serializados (`serializeAll`).
+
+3. Como o filtro é resolvido pelo `ObjectMapper` e não por um `MappingJacksonValue`, a resposta continua
+passando pelos conversores do Spring HATEOAS e pela negociação de conteúdo: os links `_links`, o formato
+HAL e as respostas em XML são mantidos, e apenas os campos do recurso são filtrados.
+*/
+
+package com.rest.webservices.restfulwebservices.filtering;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+
+public class RequestFieldsFilter extends SimpleBeanPropertyFilter {
+    private static final String ATTRIBUTE = RequestFieldsFilter.class.getName();
+
+    private static final PropertyFilter SERIALIZE_ALL = SimpleBeanPropertyFilter.serializeAll();
+
+    public static void select(Collection<String> fields) {
+        RequestContextHolder.currentRequestAttributes().setAttribute(ATTRIBUTE,
+                SimpleBeanPropertyFilter.filterOutAllExcept(fields.toArray(String[]::new)),
+                RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+        current().serializeAsField(pojo, jgen, provider, writer);
+    }
+
+    @Override
+    public void serializeAsElement(Object elementValue, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+        current().serializeAsElement(elementValue, jgen, provider, writer);
+    }
+
+    private static PropertyFilter current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return SERIALIZE_ALL;
+
+        Object filter = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        return filter instanceof PropertyFilter propertyFilter ? propertyFilter : SERIALIZE_ALL;
+    }
+}
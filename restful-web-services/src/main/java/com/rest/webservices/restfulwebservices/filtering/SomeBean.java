@@ -21,8 +21,8 @@ personalizado para ser usado durante a serialização de objetos em JSON. O valo
 @JsonFilter é um nome de filtro personalizado, neste caso, "SomeBeanFilter".
 
 Essa annotation indica que a classe SomeBean deve ser filtrada usando o filtro chamado
-"SomeBeanFilter". O filtro é configurado no controlador (como visto no exemplo anterior)
-usando SimpleFilterProvider e associado ao nome do filtro "SomeBeanFilter".
+"SomeBeanFilter". O filtro é escolhido no controlador a partir dos campos pedidos (parâmetro
+`fields`) e aplicado pelo `RequestFieldsFilter` do `ObjectMapper` da aplicação.
 O objetivo dessa configuração é permitir que o filtro seja aplicado seletivamente às
 propriedades da classe SomeBean durante a serialização em JSON. Nesse caso, o filtro
 está sendo usado para filtrar quais propriedades são incluídas na resposta JSON com base em seus nomes.
@@ -47,30 +47,30 @@ public class SomeBean {
     private String field2;
     private String field3;
 
-    public SomeBean(String filed1, String filed2, String filed3) {
-        this.field1 = filed1;
-        this.field2 = filed2;
-        this.field3 = filed3;
+    public SomeBean(String field1, String field2, String field3) {
+        this.field1 = field1;
+        this.field2 = field2;
+        this.field3 = field3;
     }
 
-    public String getFiled1() {
+    public String getField1() {
         return field1;
     }
 
-    public String getFiled2() {
+    public String getField2() {
         return field2;
     }
 
-    public String getFiled3() {
+    public String getField3() {
         return field3;
     }
 
     @Override
     public String toString() {
         return "SomeBean{" +
-                "filed1='" + field1 + '\'' +
-                ", filed2='" + field2 + '\'' +
-                ", filed3='" + field3 + '\'' +
+                "field1='" + field1 + '\'' +
+                ", field2='" + field2 + '\'' +
+                ", field3='" + field3 + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,24 @@
+package com.rest.webservices.restfulwebservices.jpa;
+
+/*
+A classe `BulkIngestResult` é o corpo da resposta dos endpoints de inserção em lote
+(`POST /jpa/users:bulk` e `POST /jpa/users/{id}/posts:bulk`). Ela informa quantos registros foram
+inseridos e em quantas transações (lotes) a inserção foi dividida.
+*/
+public class BulkIngestResult {
+    private int inserted;
+    private int chunks;
+
+    public BulkIngestResult(int inserted, int chunks) {
+        this.inserted = inserted;
+        this.chunks = chunks;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+}
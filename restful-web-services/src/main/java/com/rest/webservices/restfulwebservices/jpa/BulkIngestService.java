@@ -0,0 +1,105 @@
+/*
+A classe `BulkIngestService` faz a inserção em lote de usuários e posts, usada pelos endpoints
+`POST /jpa/users:bulk` e `POST /jpa/users/{id}/posts:bulk` do `UserJpaResource`.
+
+1. Todos os itens são validados antes de qualquer inserção (as mesmas regras de `@Valid`). Se algum
+for inválido, é lançada uma `ConstraintViolationException` e nada é gravado.
+
+2. Os itens são divididos em blocos de `bulk-ingest.chunk-size` registros, e cada bloco é gravado em
+uma transação própria (`TransactionTemplate`). Assim, uma carga grande não mantém uma transação
+longa aberta nem acumula todas as entidades no contexto de persistência. Se um bloco falhar, os
+blocos anteriores já estão gravados; o campo `chunks` da resposta ajuda a conferir a carga.
+
+3. Dentro de cada bloco, as entidades são passadas para o `EntityManager.persist` e, no final, o
+`flush` envia os INSERTs em lotes JDBC (`hibernate.jdbc.batch_size`, com `order_inserts`). Os IDs vêm
+das sequências padrão do Hibernate (otimizador pooled, 50 IDs por chamada), então não há uma ida ao
+banco por linha para gerar o ID. Depois do `flush`, o `clear` desanexa as entidades do bloco.
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.user.Post;
+import com.rest.webservices.restfulwebservices.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Component
+public class BulkIngestService {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Validator validator;
+    private TransactionTemplate transactionTemplate;
+    private int chunkSize;
+
+    public BulkIngestService(Validator validator, PlatformTransactionManager transactionManager,
+                             @Value("${bulk-ingest.chunk-size:500}") int chunkSize) {
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkIngestResult insertUsers(List<User> users) {
+        validate(users);
+
+        return insertInChunks(users, user -> {
+            user.setId(null);
+            entityManager.persist(user);
+        });
+    }
+
+    public BulkIngestResult insertPosts(int userId, List<Post> posts) {
+        validate(posts);
+
+        return insertInChunks(posts, post -> {
+            post.setId(0);
+            // Depois do clear de cada bloco a referência anterior fica desanexada, então uma nova é obtida
+            post.setUser(entityManager.getReference(User.class, userId));
+            entityManager.persist(post);
+        });
+    }
+
+    private <T> BulkIngestResult insertInChunks(List<T> items, Consumer<T> persist) {
+        int chunks = 0;
+
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            List<T> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(persist);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            chunks++;
+        }
+
+        return new BulkIngestResult(items.size(), chunks);
+    }
+
+    private <T> void validate(List<T> items) {
+        Set<ConstraintViolation<?>> violations = new HashSet<>();
+
+        for (T item : items) {
+            if (item == null) {
+                throw new ConstraintViolationException("Bulk request contains a null item", Set.of());
+            }
+            violations.addAll(validator.validate(item));
+        }
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/*
+A classe `InvalidCursorException` é lançada quando o parâmetro `cursor` da paginação de usuários não
+é um cursor válido (por exemplo, quando foi alterado pelo cliente). A anotação `@ResponseStatus` faz
+com que a resposta tenha o status 400 (Bad Request).
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -22,14 +22,53 @@ Portanto, ao usar a interface `UserRepository`, você terá acesso a métodos co
 `delete()`, `findById()`, `findAll()`, entre outros, que podem ser usados para realizar
 operações de persistência no banco de dados relacionadas à entidade `User`. Essa interface
 permite interagir facilmente com o banco de dados sem a necessidade de escrever consultas SQL manualmente.
+
+O método `streamAllByOrderByIdAsc` percorre todos os posts com um cursor do banco, da mesma forma que o
+método de mesmo nome do `UserRepository`, e é usado na exportação em `/jpa/export`.
+
+Os métodos `findSummariesByUserId` e `findSummaryByIdAndUserId` devolvem posts como `PostSummary`,
+com uma única consulta que filtra pela chave estrangeira `user_id`, sem carregar o `User` nem a
+coleção `posts`. A listagem é paginada e devolve um `Slice`, que não executa `count(*)`. As duas
+consultas usam o cache de consultas do Hibernate, que é invalidado sempre que a tabela `post` muda.
+
+Como no `UserRepository`, a anotação `@Transactional(readOnly = true)` na interface faz as consultas
+declaradas rodarem em transações somente leitura, que vão para a réplica.
 */
 
 package com.rest.webservices.restfulwebservices.jpa;
 
 import com.rest.webservices.restfulwebservices.user.Post;
-import com.rest.webservices.restfulwebservices.user.User;
+import com.rest.webservices.restfulwebservices.user.PostSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
 public interface PostRepository extends JpaRepository<Post, Integer> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Post> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.rest.webservices.restfulwebservices.user.PostSummary(p.id, p.description) " +
+           "from Post p where p.user.id = :userId order by p.id")
+    Slice<PostSummary> findSummariesByUserId(@Param("userId") Integer userId, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.rest.webservices.restfulwebservices.user.PostSummary(p.id, p.description) " +
+           "from Post p where p.id = :id and p.user.id = :userId")
+    Optional<PostSummary> findSummaryByIdAndUserId(@Param("id") Integer id, @Param("userId") Integer userId);
 }
@@ -0,0 +1,43 @@
+/*
+A classe `SecondLevelCacheEvictor` concentra as invalidações do cache de segundo nível do Hibernate
+que não acontecem sozinhas.
+
+1. As entidades `User` e `Post` e as consultas cacheáveis são mantidas pelo próprio Hibernate: ao
+inserir, alterar ou remover uma entidade, a região da entidade é atualizada, e os resultados de
+consultas que usam a tabela alterada deixam de valer (pelos timestamps de atualização).
+
+2. Já a coleção `User.posts` é o lado inverso do relacionamento (`mappedBy = "user"`). Ao criar um
+`Post` apontando para o usuário, o Hibernate não altera a coleção guardada no cache. Por isso,
+`createPostForUser`, a inserção de posts em lote e `deleteUser` chamam `evictPosts` depois de gravar.
+
+Se o cache de segundo nível estiver desligado, as chamadas não têm efeito.
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SecondLevelCacheEvictor {
+    private static final String USER_POSTS_ROLE = User.class.getName() + ".posts";
+
+    private EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictPosts(int userId) {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictCollectionData(USER_POSTS_ROLE, userId);
+    }
+
+    public void evictUser(int userId) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+
+        cache.evictEntityData(User.class, userId);
+        cache.evictCollectionData(USER_POSTS_ROLE, userId);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+O record `UserCursor` representa o cursor opaco usado na paginação por keyset (seek) de `/jpa/users`.
+
+1. Em vez de usar `OFFSET`, que obriga o banco a ler e descartar todas as linhas anteriores, a próxima
+página é buscada a partir do último `id` visto (`id > ?` em ordem crescente) e a página anterior a
+partir do primeiro `id` visto (`id < ?` em ordem decrescente). Com o índice da chave primária, o custo
+de cada página é o mesmo, não importa em que ponto da tabela ela esteja.
+
+2. O cursor guarda a direção e o `id` de referência e é codificado em Base64 (URL safe), para que o
+cliente o trate como um valor opaco e apenas o repasse no parâmetro `cursor`.
+
+3. Um cursor que não pode ser decodificado gera uma `InvalidCursorException` (400 Bad Request).
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+record UserCursor(boolean forward, int id) {
+    static UserCursor after(int id) {
+        return new UserCursor(true, id);
+    }
+
+    static UserCursor before(int id) {
+        return new UserCursor(false, id);
+    }
+
+    static UserCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            char direction = value.charAt(0);
+
+            if (value.charAt(1) != ':' || (direction != 'a' && direction != 'b')) {
+                throw new InvalidCursorException("cursor:" + token);
+            }
+
+            return new UserCursor(direction == 'a', Integer.parseInt(value.substring(2)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("cursor:" + token);
+        }
+    }
+
+    String encode() {
+        String value = (forward ? "a:" : "b:") + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+A classe `UserExportResource` expõe a exportação completa das tabelas `user_details` e `post` em
+`GET /jpa/export`, no formato NDJSON (um objeto JSON por linha).
+
+1. O corpo da resposta é um `StreamingResponseBody`: o Spring MVC libera a thread da requisição e a
+exportação é escrita diretamente no `OutputStream` da resposta, à medida que as linhas são lidas. A
+exportação pode levar bem mais que uma requisição comum, então ela tem o seu próprio timeout
+(`users.export.timeout`), aplicado só a esta requisição (ver `AsyncTimeoutConfiguration`).
+
+2. As linhas são lidas com `streamAllByOrderByIdAsc` dos repositórios, cujo fetch size positivo é
+definido só nessas consultas (ver `UserRepository.EXPORT_FETCH_SIZE`), então vale para qualquer banco.
+No MySQL, a URL do datasource tem `useCursorFetch=true`: o driver só abre um cursor no servidor para
+consultas com fetch size, ou seja, apenas as da exportação, e as outras consultas leem o resultado
+inteiro como antes. Sem essa opção, o driver carregaria a tabela inteira na memória.
+
+3. Como o `Stream` precisa de uma transação aberta, a escrita roda dentro de um `TransactionTemplate`
+somente leitura. Cada entidade é desanexada (`detach`) do `EntityManager` logo depois de escrita, e o
+contexto de persistência é limpo a cada lote, para que a memória usada não cresça com o tamanho da tabela.
+
+4. Cada linha tem o campo `type` (`user` ou `post`). Os usuários são escritos primeiro e depois os
+posts, que trazem o `userId` do autor.
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.webservices.restfulwebservices.configuration.AsyncTimeoutConfiguration;
+import com.rest.webservices.restfulwebservices.user.Post;
+import com.rest.webservices.restfulwebservices.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RestController
+public class UserExportResource {
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int CLEAR_INTERVAL = Integer.parseInt(UserRepository.EXPORT_FETCH_SIZE);
+
+    private UserRepository userRepository;
+    private PostRepository postRepository;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate transactionTemplate;
+    private Duration exportTimeout;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserExportResource(UserRepository userRepository, PostRepository postRepository,
+                              ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                              @Value("${users.export.timeout:30m}") Duration exportTimeout) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.exportTimeout = exportTimeout;
+    }
+
+    @GetMapping("/jpa/export")
+    public ResponseEntity<StreamingResponseBody> exportUsersAndPosts(HttpServletRequest request) {
+        request.setAttribute(AsyncTimeoutConfiguration.TIMEOUT_ATTRIBUTE, exportTimeout);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // As linhas já terminam com '\n', sem o espaço padrão entre valores de nível raiz
+                generator.setRootValueSeparator(null);
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        writeUsers(generator);
+                        writePosts(generator);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeUsers(JsonGenerator generator) throws IOException {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            int count = 0;
+
+            for (Iterator<User> iterator = users.iterator(); iterator.hasNext(); ) {
+                User user = iterator.next();
+
+                generator.writeStartObject();
+                generator.writeStringField("type", "user");
+                generator.writeNumberField("id", user.getId());
+                generator.writeStringField("name", user.getName());
+                generator.writeStringField("birthDate", user.getBirthDate() != null ? user.getBirthDate().toString() : null);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+
+                entityManager.detach(user);
+                if (++count % CLEAR_INTERVAL == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        generator.flush();
+    }
+
+    private void writePosts(JsonGenerator generator) throws IOException {
+        try (Stream<Post> posts = postRepository.streamAllByOrderByIdAsc()) {
+            int count = 0;
+
+            for (Iterator<Post> iterator = posts.iterator(); iterator.hasNext(); ) {
+                Post post = iterator.next();
+
+                generator.writeStartObject();
+                generator.writeStringField("type", "post");
+                generator.writeNumberField("id", post.getId());
+                if (post.getUser() != null) {
+                    // O id vem do proxy lazy, sem carregar o usuário
+                    generator.writeNumberField("userId", post.getUser().getId());
+                } else {
+                    generator.writeNullField("userId");
+                }
+                generator.writeStringField("description", post.getDescription());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+
+                entityManager.detach(post);
+                if (++count % CLEAR_INTERVAL == 0) {
+                    generator.flush();
+                    // Limpa também os proxies dos usuários criados para os posts
+                    entityManager.clear();
+                }
+            }
+        }
+
+        generator.flush();
+    }
+}
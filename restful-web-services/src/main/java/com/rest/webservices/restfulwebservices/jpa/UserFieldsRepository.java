@@ -0,0 +1,22 @@
+/*
+A interface `UserFieldsRepository` é um fragmento do `UserRepository` com as consultas usadas quando o
+cliente pede apenas alguns campos do usuário (`?fields=id,name`, ver `UserFields`).
+
+Em vez de carregar entidades `User` completas, as consultas selecionam no banco somente as colunas
+pedidas (mais o `id`, necessário para o cursor da paginação) e montam objetos `User` não gerenciados
+a partir do resultado. A implementação fica em `UserFieldsRepositoryImpl`.
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.user.User;
+import org.springframework.data.domain.Slice;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface UserFieldsRepository {
+    Slice<User> findUserFields(Set<String> fields, UserCursor position, int size);
+
+    Optional<User> findUserFieldsById(Set<String> fields, Integer id);
+}
@@ -0,0 +1,110 @@
+/*
+A classe `UserFieldsRepositoryImpl` implementa o fragmento `UserFieldsRepository`. O Spring Data a
+encontra pelo sufixo `Impl` e a combina com o `UserRepository`.
+
+1. A lista do `select` é montada a partir dos campos pedidos, que já foram validados contra
+`UserFields.ALL`, então apenas nomes conhecidos entram na consulta JPQL. O `id` é sempre selecionado.
+Na busca por ID também são selecionados `version` e `lastModified`, usados no ETag da resposta.
+
+2. O resultado é lido como `Tuple` (`select u.id as id, u.name as name ...`). O Hibernate não cria
+entidades, não as coloca no contexto de persistência e não lê o cache de segundo nível: o banco envia
+menos colunas e a aplicação cria menos objetos.
+
+3. `findUserFields` segue a mesma paginação por keyset de `/jpa/users`: busca `size + 1` linhas a partir
+do `id` do cursor para saber se existe mais uma página, e devolve um `Slice`.
+
+4. Os objetos `User` devolvidos são criados com `null` nos campos não pedidos. Eles não são serializados
+porque o filtro do `@JsonFilter` do `User` deixa apenas os campos pedidos na resposta.
+*/
+
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.user.User;
+import com.rest.webservices.restfulwebservices.user.UserFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Transactional(readOnly = true)
+class UserFieldsRepositoryImpl implements UserFieldsRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<User> findUserFields(Set<String> fields, UserCursor position, int size) {
+        String jpql = select(fields, false);
+        if (position == null) {
+            jpql += " order by u.id asc";
+        } else if (position.forward()) {
+            jpql += " where u.id > :id order by u.id asc";
+        } else {
+            jpql += " where u.id < :id order by u.id desc";
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class)
+                .setMaxResults(size + 1);
+        if (position != null) {
+            query.setParameter("id", position.id());
+        }
+
+        List<User> users = query.getResultStream()
+                .map(tuple -> toUser(tuple, fields))
+                .toList();
+
+        boolean hasNext = users.size() > size;
+
+        return new SliceImpl<>(hasNext ? users.subList(0, size) : users, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    public Optional<User> findUserFieldsById(Set<String> fields, Integer id) {
+        return entityManager.createQuery(select(fields, true) + " where u.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(tuple -> {
+                    User user = toUser(tuple, fields);
+                    user.setVersion(tuple.get("version", Long.class));
+                    user.setLastModified(tuple.get("lastModified", Instant.class));
+
+                    return user;
+                });
+    }
+
+    private static String select(Set<String> fields, boolean withVersion) {
+        StringBuilder jpql = new StringBuilder("select u.id as id");
+
+        if (withVersion) {
+            jpql.append(", u.version as version, u.lastModified as lastModified");
+        }
+
+        if (fields.contains(UserFields.NAME)) {
+            jpql.append(", u.name as name");
+        }
+
+        if (fields.contains(UserFields.BIRTH_DATE)) {
+            jpql.append(", u.birthDate as birthDate");
+        }
+
+        return jpql.append(" from user_details u").toString();
+    }
+
+    private static User toUser(Tuple tuple, Set<String> fields) {
+        return new User(
+                tuple.get("id", Integer.class),
+                fields.contains(UserFields.NAME) ? tuple.get("name", String.class) : null,
+                fields.contains(UserFields.BIRTH_DATE) ? tuple.get("birthDate", LocalDate.class) : null
+        );
+    }
+}
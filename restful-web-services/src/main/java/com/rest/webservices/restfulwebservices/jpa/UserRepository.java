@@ -9,7 +9,7 @@ que será usada como entidade no repositório.
 operações de persistência em entidades JPA, como inserir, atualizar, excluir e buscar registros
 no banco de dados.
 
-- `public interface UserRepository extends JpaRepository<User, Integer> {`: Essa declaração
+- `public interface UserRepository extends JpaRepository<User, Integer>, UserFieldsRepository {`: Essa declaração
 define a interface `UserRepository` que estende a interface `JpaRepository`. Ao estender
 `JpaRepository`, a interface `UserRepository` herda os métodos de CRUD (create, read, update,
 delete) fornecidos pelo Spring Data JPA.
@@ -22,13 +22,78 @@ Portanto, ao usar a interface `UserRepository`, você terá acesso a métodos co
 `delete()`, `findById()`, `findAll()`, entre outros, que podem ser usados para realizar
 operações de persistência no banco de dados relacionadas à entidade `User`. Essa interface
 permite interagir facilmente com o banco de dados sem a necessidade de escrever consultas SQL manualmente.
+
+Os métodos que devolvem `Slice` são usados na paginação de `/jpa/users`. Um `Slice` só sabe se existe
+uma próxima página (buscando um registro a mais), sem executar o `count(*)` que um `Page` exigiria:
+
+- `findAllBy(Pageable)`: paginação por número de página e ordenação (`/jpa/users/pages`).
+- `findAllByOrderByIdAsc`, `findByIdGreaterThanOrderByIdAsc` e `findByIdLessThanOrderByIdDesc`:
+paginação por keyset a partir de um `id` de referência, usada com o cursor de `/jpa/users`.
+
+O método `streamAllByOrderByIdAsc` devolve um `Stream` que percorre a tabela com um cursor do banco e é
+usado na exportação em `/jpa/export`, lendo `EXPORT_FETCH_SIZE` linhas por vez. O fetch size é definido
+só nessa consulta (ver `UserExportResource`). Ele precisa ser
+consumido dentro de uma transação e fechado no final. Ele não lê nem grava no cache de segundo nível
+(`CacheMode.IGNORE`), para que uma exportação completa não substitua o conteúdo do cache.
+
+Os métodos `findWithPostsById` e `findAllWithPosts` carregam os usuários junto com a coleção `posts`
+na mesma consulta (entity graph e `join fetch`). Sem eles, acessar `getPosts()` dispara uma consulta
+extra por usuário (o problema N+1), já que a coleção é carregada de forma preguiçosa (lazy).
+
+O método `existsUserById` verifica se o usuário existe buscando no máximo uma linha pela chave
+primária, sem carregar a entidade e sem o `count(*)` usado pelo `existsById` padrão.
+
+Os métodos `findUserFields` e `findUserFieldsById` vêm do fragmento `UserFieldsRepository` e buscam
+apenas as colunas pedidas no parâmetro `fields` de `/jpa/users`.
+
+A anotação `@Transactional(readOnly = true)` na interface vale para as consultas declaradas acima: o
+Spring Data só marca como somente leitura os métodos herdados do `SimpleJpaRepository`. Assim, as
+leituras de `/jpa/users` também vão para a réplica (ver `ReplicaRoutingDataSource`). Os métodos de
+escrita herdados (`save`, `delete`...) continuam com a sua própria transação de leitura e escrita.
 */
 
 package com.rest.webservices.restfulwebservices.jpa;
 
 import com.rest.webservices.restfulwebservices.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public interface UserRepository extends JpaRepository<User, Integer>, UserFieldsRepository {
+    String EXPORT_FETCH_SIZE = "1000";
+
+    Slice<User> findAllBy(Pageable pageable);
+
+    Slice<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    Slice<User> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    Slice<User> findByIdLessThanOrderByIdDesc(Integer id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<User> streamAllByOrderByIdAsc();
+
+    boolean existsUserById(Integer id);
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+    @EntityGraph(attributePaths = "posts")
+    Optional<User> findWithPostsById(Integer id);
 
+    @Query("select distinct u from user_details u left join fetch u.posts order by u.id")
+    List<User> findAllWithPosts();
 }
@@ -0,0 +1,162 @@
+/*
+A classe `CompactUserStore` é a implementação de `UserStore` pensada para diretórios grandes de
+usuários em memória (`users.store=compact`).
+
+1. Em vez de manter um objeto `User` por linha (com cabeçalho de objeto, `Integer`, `String` e
+`LocalDate`), os campos ficam em arrays de tipos primitivos, um por coluna:
+    - `nameCodes`: o código do nome no dicionário de nomes;
+    - `birthDates`: a data de nascimento em dias desde 1970-01-01 (`LocalDate.toEpochDay`);
+    - `deleted`: marca as linhas removidas.
+Assim, cada usuário ocupa poucos bytes nos arrays, e o coletor de lixo não precisa percorrer
+milhões de objetos pequenos.
+
+2. Os nomes são codificados em um dicionário (`names` e `nameIndex`): cada nome diferente é guardado uma
+única vez, e as linhas guardam apenas o código (`int`) dele.
+
+3. Os IDs são sequenciais e o ID de cada usuário é a posição da linha mais um, então `findOne` acessa a
+linha diretamente, em tempo constante, sem nenhum índice extra.
+
+4. Os objetos `User` devolvidos por `findAll` e `findOne` são criados a cada leitura a partir das colunas.
+Alterar um desses objetos não altera o que está guardado.
+
+5. O acesso concorrente é controlado por um `ReentrantReadWriteLock`: várias leituras podem acontecer
+ao mesmo tempo, e as escritas são exclusivas. A revisão (`revision`) é incrementada dentro da
+mesma escrita.
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@ConditionalOnProperty(name = "users.store", havingValue = "compact")
+public class CompactUserStore implements UserStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Valores que representam nome ou data de nascimento nulos nas colunas
+    private static final int NO_NAME = -1;
+    private static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[] nameCodes = new int[INITIAL_CAPACITY];
+    private int[] birthDates = new int[INITIAL_CAPACITY];
+    private final BitSet deleted = new BitSet();
+    private int rows;
+    private int liveRows;
+    private long revision;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+
+    @Override
+    public List<User> findAll() {
+        lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>(liveRows);
+            for (int row = deleted.nextClearBit(0); row < rows; row = deleted.nextClearBit(row + 1)) {
+                users.add(toUser(row));
+            }
+
+            return Collections.unmodifiableList(users);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User findOne(int id) {
+        int row = id - 1;
+
+        lock.readLock().lock();
+        try {
+            if (row < 0 || row >= rows || deleted.get(row)) return null;
+
+            return toUser(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User save(User user) {
+        lock.writeLock().lock();
+        try {
+            if (rows == nameCodes.length) {
+                int capacity = nameCodes.length * 2;
+                nameCodes = Arrays.copyOf(nameCodes, capacity);
+                birthDates = Arrays.copyOf(birthDates, capacity);
+            }
+
+            int row = rows++;
+            nameCodes[row] = encodeName(user.getName());
+            birthDates[row] = user.getBirthDate() != null ? Math.toIntExact(user.getBirthDate().toEpochDay()) : NO_BIRTH_DATE;
+            liveRows++;
+            revision++;
+
+            user.setId(row + 1);
+
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(int id) {
+        int row = id - 1;
+
+        lock.writeLock().lock();
+        try {
+            if (row < 0 || row >= rows || deleted.get(row)) return;
+
+            deleted.set(row);
+            liveRows--;
+            revision++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long revision() {
+        lock.readLock().lock();
+        try {
+            return revision;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int encodeName(String name) {
+        if (name == null) return NO_NAME;
+
+        return nameIndex.computeIfAbsent(name, key -> {
+            names.add(key);
+            return names.size() - 1;
+        });
+    }
+
+    private User toUser(int row) {
+        int nameCode = nameCodes[row];
+        int birthDate = birthDates[row];
+
+        return new User(
+                row + 1,
+                nameCode == NO_NAME ? null : names.get(nameCode),
+                birthDate == NO_BIRTH_DATE ? null : LocalDate.ofEpochDay(birthDate)
+        );
+    }
+}
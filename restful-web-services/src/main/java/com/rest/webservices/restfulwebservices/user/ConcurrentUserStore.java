@@ -0,0 +1,109 @@
+/*
+A classe `ConcurrentUserStore` é a implementação padrão de `UserStore`.
+
+1. Os usuários ficam em um `Snapshot` imutável, com um índice por ID (`byId`) e a lista em ordem
+de inserção (`ordered`). O campo `snapshot` é uma `AtomicReference` que aponta para a versão atual.
+As leituras nunca bloqueiam: basta ler a referência e consultar o snapshot.
+
+2. As escritas (`save` e `deleteById`) montam um snapshot novo a partir do atual e trocam a
+referência com `compareAndSet`. Se outra thread tiver trocado o snapshot antes, a operação é refeita
+sobre a versão mais recente. Nenhuma escrita é perdida e nenhuma leitura enxerga um estado pela metade.
+Como o serviço é usado quase só para leitura, copiar o snapshot a cada escrita é um bom custo.
+
+3. Os IDs são gerados por um `AtomicInteger`, então requisições POST concorrentes nunca recebem o
+mesmo ID.
+
+4. O método `findAll()` retorna a lista imutável do snapshot atual, e o `findOne(int id)` consulta o
+índice `byId` em tempo constante (O(1)), sem percorrer a lista.
+
+5. Cada snapshot guarda a sua revisão (`revision`), que é a do snapshot anterior mais um. Como ela
+é trocada junto com os dados, uma leitura nunca enxerga a revisão nova com os usuários antigos.
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@ConditionalOnProperty(name = "users.store", havingValue = "concurrent", matchIfMissing = true)
+public class ConcurrentUserStore implements UserStore {
+    private final AtomicInteger usersCount = new AtomicInteger();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    @Override
+    public List<User> findAll() {
+        return snapshot.get().ordered();
+    }
+
+    @Override
+    public User findOne(int id) {
+        return snapshot.get().byId().get(id);
+    }
+
+    @Override
+    public User save(User user) {
+        user.setId(usersCount.incrementAndGet());
+
+        Snapshot current;
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, current.with(user)));
+
+        return user;
+    }
+
+    @Override
+    public long revision() {
+        return snapshot.get().revision();
+    }
+
+    @Override
+    public void deleteById(int id) {
+        Snapshot current;
+        do {
+            current = snapshot.get();
+            if (!current.byId().containsKey(id)) return;
+        } while (!snapshot.compareAndSet(current, current.without(id)));
+    }
+
+    /*
+    O record `Snapshot` é uma versão imutável dos usuários: o índice por ID e a lista na ordem de
+    inserção. Os métodos `with` e `without` nunca alteram o snapshot atual, sempre devolvem um novo.
+    */
+    private record Snapshot(Map<Integer, User> byId, List<User> ordered, long revision) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), List.of(), 0);
+
+        Snapshot with(User user) {
+            Map<Integer, User> newById = new HashMap<>(byId);
+            newById.put(user.getId(), user);
+
+            List<User> newOrdered = new ArrayList<>(ordered.size() + 1);
+            newOrdered.addAll(ordered);
+            newOrdered.add(user);
+
+            return new Snapshot(Collections.unmodifiableMap(newById), Collections.unmodifiableList(newOrdered), revision + 1);
+        }
+
+        Snapshot without(int id) {
+            Map<Integer, User> newById = new HashMap<>(byId);
+            newById.remove(id);
+
+            List<User> newOrdered = new ArrayList<>(ordered.size());
+            for (User user : ordered) {
+                if (user.getId() != id) newOrdered.add(user);
+            }
+
+            return new Snapshot(Collections.unmodifiableMap(newById), Collections.unmodifiableList(newOrdered), revision + 1);
+        }
+    }
+}
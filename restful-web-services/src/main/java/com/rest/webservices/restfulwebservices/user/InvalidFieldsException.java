@@ -0,0 +1,18 @@
+/*
+A classe `InvalidFieldsException` é lançada quando o parâmetro `fields` das APIs de usuários pede um
+campo que não existe no `User` (ver `UserFields`), e também pelo `FilteringController` quando o campo
+não existe no `SomeBean`. A anotação `@ResponseStatus` faz com que a resposta
+tenha o status 400 (Bad Request).
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
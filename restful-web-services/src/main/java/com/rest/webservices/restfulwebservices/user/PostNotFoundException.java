@@ -0,0 +1,18 @@
+/*
+A classe `PostNotFoundException` é a exceção de recurso não encontrado (404) para posts, lançada quando
+o post pedido não existe ou pertence a outro usuário. Como a `UserNotFoundException`, ela estende
+`NotFoundException`, então é criada sem stack trace e contada em `api.errors` com o seu próprio `type`.
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import com.rest.webservices.restfulwebservices.exception.NotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.NOT_FOUND)
+public class PostNotFoundException extends NotFoundException {
+    public PostNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+/*
+O record `PostSummary` é uma projeção (DTO) de `Post` usada nas listagens de posts. Ele é montado
+diretamente pela consulta JPQL (`select new ...`) do `PostRepository`, com apenas as colunas
+necessárias, sem carregar a entidade `Post` nem o `User` associado a ela.
+
+O JSON gerado tem os mesmos campos de um `Post` (`id` e `description`), já que o `user` é ignorado
+na serialização da entidade.
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+public record PostSummary(int id, String description) {
+}
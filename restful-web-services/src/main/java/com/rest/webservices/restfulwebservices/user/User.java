@@ -1,14 +1,21 @@
 package com.rest.webservices.restfulwebservices.user;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -25,13 +32,23 @@ name = "user_details": Este parâmetro opcional permite especificar o nome da ta
 banco de dados associada a essa entidade. No exemplo, a tabela correspondente será nomeada
 como "user_details".
 
+As anotações @Cacheable e @Cache colocam a entidade no cache de segundo nível do Hibernate
+(região "user", configurada no ehcache.xml). Um `findById` de um usuário que já está no cache não vai
+ao banco. Alterações feitas pelo Hibernate atualizam o cache automaticamente.
+
 A partir dessa anotação, o framework de persistência pode criar e atualizar a tabela no
 banco de dados de acordo com a estrutura definida na classe User. Além disso, ele também
 permite que consultas sejam realizadas na tabela usando operações CRUD (criar, ler, atualizar
 e deletar) de forma simplificada.
+
+A anotação @JsonFilter permite que as APIs de usuários devolvam apenas os campos pedidos no parâmetro
+`fields` (ver `UserFields`). Sem o parâmetro, todos os campos são serializados.
 */
 
 @Entity(name = "user_details")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@JsonFilter(UserFields.FILTER_ID)
 public class User {
     protected User() {
 
@@ -42,7 +59,9 @@ public class User {
 
     @Id e @GeneratedValue: Essas anotações são usadas em conjunto para indicar que o campo id
     é a chave primária da entidade e que seu valor deve ser gerado automaticamente pelo
-    sistema (geralmente usando uma estratégia de autoincremento no banco de dados).
+    sistema. Por padrão, o Hibernate 6 usa a sequência `user_details_seq` (no MySQL, uma tabela que
+    emula a sequência) com o otimizador pooled, que reserva 50 IDs por chamada. Como os IDs são
+    conhecidos antes do INSERT, os INSERTs podem ser enviados em lote (JDBC batch).
 
     @Size(min = 2, message = "Name should have at least 2 characters"): Essa anotação valida
     o tamanho mínimo da string no campo name. Se o valor do campo não atender ao requisito
@@ -68,6 +87,20 @@ public class User {
     // @JsonProperty("birth_date")
     private LocalDate birthDate;
 
+    /*
+    O campo `version` (@Version) é incrementado pelo Hibernate a cada atualização do usuário e
+    `lastModified` (@UpdateTimestamp) guarda o instante da última gravação. Eles são usados como ETag e
+    Last-Modified em `GET /jpa/users/{id}` (requisições condicionais, ver `UserResponseCaching`) e não
+    fazem parte do JSON.
+    */
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonIgnore
+    private Instant lastModified;
+
     /*
     A anotação @OneToMany é utilizada na JPA (Java Persistence API) para mapear um
     relacionamento de um para muitos (one-to-many) entre duas entidades em um banco
@@ -83,8 +116,13 @@ public class User {
     Nesse tipo de relacionamento, uma instância da entidade A pode estar relacionada a várias
     instâncias da entidade B, mas cada instância da entidade B está associada a apenas uma instância
     da entidade A.
+
+    A coleção também fica no cache de segundo nível (região "user.posts"). Como ela é o lado inverso
+    do relacionamento, inserir um `Post` não a atualiza: quem cria ou remove posts precisa invalidar
+    a coleção do usuário (ver `SecondLevelCacheEvictor`).
     */
     @OneToMany(mappedBy = "user")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user.posts")
     @JsonIgnore
     private List<Post> posts;
 
@@ -118,6 +156,22 @@ public class User {
         this.birthDate = birthDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     public List<Post> getPosts() {
         return posts;
     }
@@ -0,0 +1,56 @@
+/*
+A classe `UserFields` trata o parâmetro `fields` das APIs de usuários (`/users` e `/jpa/users`), que
+permite ao cliente pedir apenas alguns campos do `User` (por exemplo `?fields=id,name`).
+
+1. `parse` valida os campos pedidos contra `ALL`, sem nenhum outro efeito. Um campo desconhecido gera
+uma `InvalidFieldsException` (400 Bad Request). Sem o parâmetro, todos os campos são devolvidos.
+
+2. O controlador registra os campos escolhidos com `RequestFieldsFilter.select`, então apenas eles são
+serializados na resposta (pelo `@JsonFilter` do `User`).
+
+3. O conjunto devolvido pode ser usado pelo repositório para buscar no banco somente as colunas pedidas
+(ver `UserFieldsRepository`).
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public final class UserFields {
+    public static final String FILTER_ID = "UserFilter";
+
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String BIRTH_DATE = "birthDate";
+
+    public static final Set<String> ALL = Set.of(ID, NAME, BIRTH_DATE);
+
+    private UserFields() {
+
+    }
+
+    public static Set<String> parse(Collection<String> fields) {
+        if (fields == null) return ALL;
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+
+            if (!ALL.contains(name)) throw new InvalidFieldsException("fields:" + name);
+
+            selected.add(name);
+        }
+
+        if (selected.isEmpty() || selected.containsAll(ALL)) return ALL;
+
+        return Collections.unmodifiableSet(selected);
+    }
+
+    public static boolean isAll(Set<String> fields) {
+        return fields.containsAll(ALL);
+    }
+}
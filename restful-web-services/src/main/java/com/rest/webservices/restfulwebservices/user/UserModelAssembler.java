@@ -0,0 +1,53 @@
+/*
+A classe `UserModelAssembler` monta o `EntityModel<User>` devolvido pelas leituras de um usuário
+(`GET /users/{id}` e `GET /jpa/users/{id}`), com o link `all-users` para a lista de usuários.
+
+1. O caminho da lista (por exemplo `/users` ou `/jpa/users`) é resolvido uma única vez, na criação do
+assembler, a partir do mapeamento do método do controlador (`MvcUriComponentsBuilder.on(...)`). Antes,
+cada requisição chamava `linkTo(methodOn(...))`, que cria um proxy CGLIB do controlador e procura o
+mapeamento por reflexão.
+
+2. A cada requisição, o link é apenas o endereço base da requisição atual (esquema, host, porta e
+caminho do servlet, como no `WebMvcLinkBuilder`) somado ao caminho já resolvido.
+
+3. `allUsersUri` devolve um `UriComponentsBuilder` com esse mesmo endereço, para os controladores
+montarem links da lista com parâmetros (cursor, tamanho da página) sem usar `methodOn`.
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+public class UserModelAssembler implements RepresentationModelAssembler<User, EntityModel<User>> {
+    private final String allUsersPath;
+
+    private UserModelAssembler(String allUsersPath) {
+        this.allUsersPath = allUsersPath;
+    }
+
+    /*
+    Recebe a chamada ao método da lista feita sobre `MvcUriComponentsBuilder.on(Controlador.class)`,
+    por exemplo `withAllUsersLink(on(UserResource.class).retrieveAllUsers(null))`.
+    */
+    public static UserModelAssembler withAllUsersLink(Object allUsersInvocation) {
+        String path = MvcUriComponentsBuilder.fromMethodCall(UriComponentsBuilder.newInstance(), allUsersInvocation)
+                .build()
+                .getPath();
+
+        return new UserModelAssembler(path);
+    }
+
+    @Override
+    public EntityModel<User> toModel(User user) {
+        return EntityModel.of(user, Link.of(allUsersUri().toUriString(), "all-users"));
+    }
+
+    public UriComponentsBuilder allUsersUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().path(allUsersPath);
+    }
+}
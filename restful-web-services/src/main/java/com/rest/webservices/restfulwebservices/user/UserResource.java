@@ -29,29 +29,40 @@ em URLs específicas, retornando listas de usuários ou usuários individuais, d
 
 package com.rest.webservices.restfulwebservices.user;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
 
+import com.rest.webservices.restfulwebservices.exception.ProblemResponses;
+import com.rest.webservices.restfulwebservices.filtering.RequestFieldsFilter;
 import jakarta.validation.Valid;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 public class UserResource {
     private UserDaoService service;
+    private UserResponseCaching responseCaching;
+    private UserModelAssembler assembler;
+    private ProblemResponses problemResponses;
 
-    public UserResource(UserDaoService service) {
+    public UserResource(UserDaoService service, UserResponseCaching responseCaching, ProblemResponses problemResponses) {
         this.service = service;
+        this.responseCaching = responseCaching;
+        this.problemResponses = problemResponses;
+        this.assembler = UserModelAssembler.withAllUsersLink(on(UserResource.class).retrieveAllUsers(null));
     }
 
-    // Get /users
+    // Get /users (ou /users?fields=id,name para devolver apenas alguns campos, ver `UserFields`)
     @GetMapping("/users")
-    public List<User> retrieveAllUsers() {
+    public List<User> retrieveAllUsers(@RequestParam(required = false) Set<String> fields) {
+        RequestFieldsFilter.select(UserFields.parse(fields));
+
         return service.findAll();
     }
 
@@ -64,43 +75,55 @@ public class UserResource {
     2. O método chama o método `findOne(id)` do serviço `service` para obter o usuário com o ID fornecido.
 
     3. Se o usuário não for encontrado (ou seja, se o valor retornado for `null`), é
-    lançada uma exceção `UserNotFoundException`. Essa exceção é personalizada e indica que
-    o usuário com o ID fornecido não foi encontrado. A mensagem de exceção é construída
-    concatenando a string "id:" com o valor do ID.
+    devolvida uma resposta 404 no formato `application/problem+json`, montada pelo
+    `ProblemResponses`, que também conta o erro na métrica `api.errors`. Nenhuma exceção é
+    lançada nesse caso. O detalhe do erro é construído concatenando a string "id:" com o valor do ID.
 
-    4. Caso o usuário seja encontrado, um objeto `EntityModel<User>` é criado usando o método
-    estático `of(user)` da classe `EntityModel`. O objeto `EntityModel` é uma classe do Spring
-    HATEOAS que encapsula o usuário e fornece recursos adicionais de hipermídia.
+    4. Caso o usuário seja encontrado, um objeto `EntityModel<User>` é criado pelo
+    `UserModelAssembler`. O objeto `EntityModel` é uma classe do Spring HATEOAS que encapsula o
+    usuário e fornece recursos adicionais de hipermídia.
 
-    5. Em seguida, é criado um link para o método `retrieveAllUsers()` desta classe usando o
-    método `linkTo(methodOn(this.getClass()).retrieveAllUsers())` da classe `WebMvcLinkBuilder`.
-    O link é adicionado ao objeto `entityModel` com o nome de relacionamento "all-users".
+    5. O assembler adiciona ao `entityModel` um link para o método `retrieveAllUsers()` desta classe,
+    com o nome de relacionamento "all-users". O caminho desse método é resolvido uma única vez, no
+    construtor, com `on(UserResource.class).retrieveAllUsers(null)`, em vez de usar
+    `linkTo(methodOn(...))` a cada requisição.
 
     6. Por fim, o objeto `entityModel`, que contém o usuário e o link, é retornado como a
     resposta da requisição.
 
+    Antes de montar o `entityModel`, o método compara o ETag (a versão do `UserDaoService`) e o
+    Last-Modified com os cabeçalhos `If-None-Match` e `If-Modified-Since` da requisição. Se o cliente já
+    tem a versão atual, a resposta é um 304 (Not Modified) sem corpo. As respostas levam também o
+    `Cache-Control` definido em `UserResponseCaching`.
+
     Em resumo, esse método recupera um usuário com base no ID fornecido e retorna um objeto
     `EntityModel<User>` contendo o usuário e um link para recuperar todos os usuários. Caso
-    o usuário não seja encontrado, uma exceção `UserNotFoundException` é lançada. Essa
-    abordagem permite a inclusão de informações adicionais no resultado da resposta, como
-    links para outros recursos relacionados, seguindo o princípio HATEOAS (Hypermedia as
-    the Engine of Application State).
+    o usuário não seja encontrado, a resposta 404 é montada diretamente pelo `ProblemResponses`,
+    sem lançar a `UserNotFoundException`. Essa abordagem permite a inclusão de informações
+    adicionais no resultado da resposta, como links para outros recursos relacionados, seguindo
+    o princípio HATEOAS (Hypermedia as the Engine of Application State).
     */
     @GetMapping("/users/{id}")
-    public EntityModel<User> retrieveUser(@PathVariable int id) {
+    public ResponseEntity<EntityModel<User>> retrieveUser(@PathVariable int id,
+                                                          @RequestParam(required = false) Set<String> fields,
+                                                          WebRequest request) {
+        Set<String> selected = UserFields.parse(fields);
+        RequestFieldsFilter.select(selected);
         User user = service.findOne(id);
 
         // Se o usuário não for encontrado (ou seja, se o valor retornado for null),
-        // uma exceção UserNotFoundException é lançada. Essa exceção personalizada indica
-        // que o usuário com o ID fornecido não foi encontrado.
-        // A mensagem de exceção é construída concatenando a string "id:" com o valor do ID.
-        if (user == null) throw new UserNotFoundException("id:" + id);
-
-        EntityModel<User> entityModel = EntityModel.of(user);
-        WebMvcLinkBuilder link = linkTo(methodOn(this.getClass()).retrieveAllUsers());
-        entityModel.add(link.withRel("all-users"));
-
-        return entityModel;
+        // a resposta 404 (problem+json) é devolvida diretamente, sem lançar a
+        // UserNotFoundException, já que IDs inexistentes são a maior parte dos 404.
+        // O detalhe é construído concatenando a string "id:" com o valor do ID.
+        if (user == null) return problemResponses.notFound(UserNotFoundException.class, "id:" + id);
+
+        // Se o cliente já tem esta versão (If-None-Match / If-Modified-Since), responde 304 sem corpo
+        String etag = UserResponseCaching.etag(service.version(), selected);
+        if (request.checkNotModified(etag, UserResponseCaching.lastModified(service.lastModified()))) {
+            return responseCaching.notModified();
+        }
+
+        return responseCaching.ok(assembler.toModel(user));
     }
 
     /*
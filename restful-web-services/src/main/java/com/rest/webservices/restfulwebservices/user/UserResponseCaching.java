@@ -0,0 +1,67 @@
+/*
+A classe `UserResponseCaching` reúne o que as leituras de um usuário (`GET /users/{id}` e
+`GET /jpa/users/{id}`) precisam para responder a requisições condicionais.
+
+1. O ETag é forte e vem de uma versão já conhecida, e não de um hash do corpo: a coluna `@Version` do
+`User` no JPA, ou a revisão do `UserStore` nos usuários em memória. Quando o cliente pede apenas alguns
+campos (`fields`), os campos entram no ETag, já que o corpo é diferente para cada seleção.
+
+2. Os controladores chamam `WebRequest.checkNotModified(etag, lastModified)` antes de montar o
+`EntityModel`. Se o `If-None-Match` (ou, sem ele, o `If-Modified-Since`) ainda vale, a resposta é um
+304 sem corpo, e nada é serializado.
+
+3. O `Cache-Control` (`max-age` de `users.http.max-age`, com `must-revalidate`) permite que clientes e
+intermediários, como o api-gateway, guardem a resposta e a revalidem com o ETag, recebendo um 304.
+O cabeçalho `Vary: Accept` separa as representações JSON, HAL e XML do mesmo recurso.
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+public class UserResponseCaching {
+    private final CacheControl cacheControl;
+
+    public UserResponseCaching(@Value("${users.http.max-age:0s}") Duration maxAge) {
+        this.cacheControl = CacheControl.maxAge(maxAge).mustRevalidate();
+    }
+
+    public static String etag(Object version, Set<String> fields) {
+        String tag = String.valueOf(version != null ? version : 0);
+
+        if (!UserFields.isAll(fields)) {
+            tag += ";" + String.join(",", new TreeSet<>(fields));
+        }
+
+        return "\"" + tag + "\"";
+    }
+
+    public static long lastModified(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : -1;
+    }
+
+    public <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    public <T> ResponseEntity<T> ok(T body) {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+A interface `UserStore` define onde o `UserDaoService` guarda os usuários em memória. Existem duas
+implementações, escolhidas pela propriedade `users.store`:
+
+- `ConcurrentUserStore` (`users.store=concurrent`, padrão): guarda os próprios objetos `User` em um
+snapshot imutável com índice por ID. É a opção mais rápida para leitura.
+
+- `CompactUserStore` (`users.store=compact`): guarda os campos em arrays de tipos primitivos (colunas),
+sem manter um objeto `User` por linha. Usa bem menos memória quando há muitos usuários, ao custo de
+criar os objetos `User` a cada leitura.
+
+Em ambas, o método `save` gera o ID do usuário e o atribui ao objeto recebido.
+
+O método `revision` devolve um contador que aumenta a cada `save` ou `deleteById` que altera os usuários.
+Ele é usado como ETag nas leituras de `/users` (ver `UserResource`).
+*/
+
+package com.rest.webservices.restfulwebservices.user;
+
+import java.util.List;
+
+public interface UserStore {
+    List<User> findAll();
+
+    User findOne(int id);
+
+    User save(User user);
+
+    void deleteById(int id);
+
+    long revision();
+}
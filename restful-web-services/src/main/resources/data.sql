@@ -1,11 +1,11 @@
-INSERT INTO user_details(id, birth_data, name)
-VALUES (10001, current_date(), 'Ranga');
+INSERT INTO user_details(id, birth_data, name, version, last_modified)
+VALUES (10001, current_date(), 'Ranga', 0, current_timestamp());
 
-INSERT INTO user_details(id, birth_data, name)
-VALUES (10002, current_date(), 'Ravi');
+INSERT INTO user_details(id, birth_data, name, version, last_modified)
+VALUES (10002, current_date(), 'Ravi', 0, current_timestamp());
 
-INSERT INTO user_details(id, birth_data, name)
-VALUES (10003, current_date(), 'Sathish');
+INSERT INTO user_details(id, birth_data, name, version, last_modified)
+VALUES (10003, current_date(), 'Sathish', 0, current_timestamp());
 
 
 INSERT INTO post(id, description, user_id)
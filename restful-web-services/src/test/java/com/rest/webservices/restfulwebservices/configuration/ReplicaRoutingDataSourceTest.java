@@ -0,0 +1,82 @@
+package com.rest.webservices.restfulwebservices.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("create table if not exists replica_lag(seconds int)");
+        replicaJdbc.execute("delete from replica_lag");
+        replicaJdbc.update("insert into replica_lag values (0)");
+
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(replica, "select seconds from replica_lag", Duration.ofSeconds(10), meterRegistry);
+        monitor.check();
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, monitor, meterRegistry));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+
+        jdbc = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+        assertEquals("primary", currentDatabase());
+
+        assertEquals(1, meterRegistry.counter("db.routing.connections", "target", "replica").count());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaLagsBehind() {
+        replicaJdbc.update("update replica_lag set seconds = 60");
+        monitor.check();
+
+        assertFalse(monitor.getAsBoolean());
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+        assertEquals(1, meterRegistry.counter("db.routing.fallback").count());
+
+        replicaJdbc.update("update replica_lag set seconds = 1");
+        monitor.check();
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    private String currentDatabase() {
+        return jdbc.queryForObject("select lower(database())", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,55 @@
+package com.rest.webservices.restfulwebservices.filtering;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.rest.webservices.restfulwebservices.user.InvalidFieldsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilteringControllerTest {
+    private final FilteringController controller = new FilteringController();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(new RequestFieldsFilter()));
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/filtering")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void serializesOnlyRequestedFields() throws Exception {
+        SomeBean bean = controller.filtering(Set.of("field2"));
+
+        assertEquals("{\"field2\":\"value2\"}", objectMapper.writeValueAsString(bean));
+    }
+
+    @Test
+    void serializesDefaultFieldsWithoutParameter() throws Exception {
+        SomeBean bean = controller.filtering(null);
+
+        assertEquals("{\"field1\":\"value1\",\"field3\":\"value3\"}", objectMapper.writeValueAsString(bean));
+    }
+
+    @Test
+    void rejectsUnknownField() {
+        InvalidFieldsException exception = assertThrows(InvalidFieldsException.class,
+                () -> controller.filtering(Set.of("field1", "password")));
+        assertEquals("fields:password", exception.getMessage());
+
+        assertThrows(InvalidFieldsException.class, () -> controller.filteringList(Set.of("field4")));
+    }
+}
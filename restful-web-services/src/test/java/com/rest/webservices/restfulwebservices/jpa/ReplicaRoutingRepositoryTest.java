@@ -0,0 +1,106 @@
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.configuration.ReplicaRoutingDataSource;
+import com.rest.webservices.restfulwebservices.user.Post;
+import com.rest.webservices.restfulwebservices.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Sem a transação de teste do @DataJpaTest, cada chamada ao repositório abre a sua própria transação
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingRepositoryTest {
+    @TestConfiguration
+    static class RoutingConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        // Os dois alvos apontam para o mesmo banco H2, então o alvo escolhido é verificado pelas métricas
+        @Bean
+        DataSource dataSource(MeterRegistry meterRegistry) {
+            return new LazyConnectionDataSourceProxy(
+                    new ReplicaRoutingDataSource(h2(), h2(), () -> true, meterRegistry));
+        }
+
+        private static DataSource h2() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1");
+
+            return dataSource;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Routed", LocalDate.now().minusYears(30)));
+
+        Post post = new Post();
+        post.setDescription("Routed post");
+        post.setUser(user);
+        postRepository.save(post);
+    }
+
+    @Test
+    void declaredQueriesGoToReplica() {
+        double replica = connections("replica");
+        double primary = connections("primary");
+
+        assertFalse(userRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 10)).isEmpty());
+        assertTrue(userRepository.existsUserById(user.getId()));
+        assertTrue(userRepository.findWithPostsById(user.getId()).isPresent());
+        assertEquals(1, postRepository.findSummariesByUserId(user.getId(), PageRequest.of(0, 10)).getNumberOfElements());
+
+        assertEquals(replica + 4, connections("replica"));
+        assertEquals(primary, connections("primary"));
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        double replica = connections("replica");
+        double primary = connections("primary");
+
+        userRepository.save(new User(null, "Written", LocalDate.now().minusYears(25)));
+
+        assertEquals(primary + 1, connections("primary"));
+        assertEquals(replica, connections("replica"));
+    }
+
+    private double connections(String target) {
+        return meterRegistry.counter("db.routing.connections", "target", target).count();
+    }
+}
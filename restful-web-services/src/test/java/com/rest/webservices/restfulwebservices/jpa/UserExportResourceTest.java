@@ -0,0 +1,109 @@
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.webservices.restfulwebservices.user.Post;
+import com.rest.webservices.restfulwebservices.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import(UserExportResource.class)
+// Sem a transação de teste, a exportação abre a sua própria transação somente leitura, como em produção
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExportResourceTest {
+    // Mais usuários que o intervalo de limpeza do contexto de persistência
+    private static final int USERS = Integer.parseInt(UserRepository.EXPORT_FETCH_SIZE) + 100;
+
+    @TestConfiguration
+    static class JacksonConfiguration {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private UserExportResource resource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User(null, "User" + i, LocalDate.now().minusYears(20)));
+        }
+        author = userRepository.saveAll(users).get(0);
+
+        for (int i = 0; i < 3; i++) {
+            Post post = new Post();
+            post.setDescription("Exported post " + i);
+            post.setUser(author);
+            postRepository.save(post);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void streamsUsersThenPostsAsNdjson() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = resource.exportUsersAndPosts(new MockHttpServletRequest("GET", "/jpa/export"));
+        assertEquals(UserExportResource.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(USERS + 3, lines.length);
+
+        int previousId = Integer.MIN_VALUE;
+        for (int i = 0; i < USERS; i++) {
+            JsonNode user = objectMapper.readTree(lines[i]);
+            assertEquals("user", user.get("type").asText());
+            assertTrue(user.get("id").asInt() > previousId);
+            previousId = user.get("id").asInt();
+        }
+
+        for (int i = USERS; i < lines.length; i++) {
+            JsonNode post = objectMapper.readTree(lines[i]);
+            assertEquals("post", post.get("type").asText());
+            assertEquals(author.getId(), post.get("userId").asInt());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.exception.ProblemResponses;
+import com.rest.webservices.restfulwebservices.user.User;
+import com.rest.webservices.restfulwebservices.user.UserResponseCaching;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import({UserJpaResource.class, SecondLevelCacheEvictor.class, UserResponseCaching.class, ProblemResponses.class})
+class UserJpaResourceConditionalGetTest {
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private BulkIngestService bulkIngestService;
+
+    @Autowired
+    private UserJpaResource resource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // O link para todos os usuários é montado a partir da requisição atual
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/jpa/users")));
+
+        user = new User(null, "Cached", LocalDate.now().minusYears(30));
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void notModifiedWhenETagMatches() {
+        String etag = fetch().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        ResponseEntity<?> entity = resource.retrieveUser(user.getId(), null, new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+        assertNull(entity.getBody());
+    }
+
+    @Test
+    void notModifiedWhenUnchangedSinceLastModified() {
+        String lastModified = fetch().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        ResponseEntity<?> entity = resource.retrieveUser(user.getId(), null, new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+    }
+
+    @Test
+    void etagChangesAfterUpdate() {
+        String etag = fetch().getHeader(HttpHeaders.ETAG);
+
+        // A gravação incrementa a coluna @Version
+        User stored = entityManager.find(User.class, user.getId());
+        stored.setName("Renamed");
+        entityManager.flush();
+        entityManager.clear();
+
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> entity = resource.retrieveUser(user.getId(), null, new ServletWebRequest(request, response));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/jpa/users/" + user.getId());
+    }
+
+    private MockHttpServletResponse fetch() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> entity = resource.retrieveUser(user.getId(), null, new ServletWebRequest(request(), response));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        return response;
+    }
+}
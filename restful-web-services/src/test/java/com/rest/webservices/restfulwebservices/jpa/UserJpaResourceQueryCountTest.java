@@ -0,0 +1,173 @@
+package com.rest.webservices.restfulwebservices.jpa;
+
+import com.rest.webservices.restfulwebservices.exception.ProblemResponses;
+import com.rest.webservices.restfulwebservices.user.Post;
+import com.rest.webservices.restfulwebservices.user.PostNotFoundException;
+import com.rest.webservices.restfulwebservices.user.PostSummary;
+import com.rest.webservices.restfulwebservices.user.User;
+import com.rest.webservices.restfulwebservices.user.UserFields;
+import com.rest.webservices.restfulwebservices.user.UserNotFoundException;
+import com.rest.webservices.restfulwebservices.user.UserResponseCaching;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import({UserJpaResource.class, SecondLevelCacheEvictor.class, UserResponseCaching.class, ProblemResponses.class})
+class UserJpaResourceQueryCountTest {
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private BulkIngestService bulkIngestService;
+
+    @Autowired
+    private UserJpaResource resource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User userWithPosts;
+
+    @BeforeEach
+    void setUp() {
+        // Os links de paginação são montados a partir da requisição atual
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/jpa/users/1/posts")));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < 3; i++) {
+            User user = new User(null, "User" + i, LocalDate.now().minusYears(20 + i));
+            entityManager.persist(user);
+
+            for (int j = 0; j < 3; j++) {
+                Post post = new Post();
+                post.setDescription("Post number " + j + " of user " + i);
+                post.setUser(user);
+                entityManager.persist(post);
+            }
+
+            userWithPosts = user;
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void retrievePostsForUserRunsOneQueryWithoutLoadingUser() {
+        CollectionModel<PostSummary> posts = resource.retrievePostsForUser(userWithPosts.getId(), PageRequest.of(0, 2));
+
+        assertEquals(2, posts.getContent().size());
+        assertTrue(posts.getLink(IanaLinkRelations.NEXT).isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void retrievePostsForUnknownUserRunsAtMostTwoQueries() {
+        assertThrows(UserNotFoundException.class, () -> resource.retrievePostsForUser(Integer.MAX_VALUE, PageRequest.of(0, 20)));
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+    }
+
+    @Test
+    void retrievePostForUserRunsOneQuery() {
+        PostSummary first = postRepository.findSummariesByUserId(userWithPosts.getId(), PageRequest.of(0, 1)).getContent().get(0);
+        statistics.clear();
+
+        assertEquals(first, resource.retrievePostForUser(userWithPosts.getId(), first.id()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void retrievePostForUserReportsMissingPost() {
+        assertThrows(PostNotFoundException.class, () -> resource.retrievePostForUser(userWithPosts.getId(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    void findAllWithPostsFetchesCollectionsInOneQuery() {
+        List<User> users = userRepository.findAllWithPosts();
+
+        int posts = 0;
+        for (User user : users) {
+            posts += user.getPosts().size();
+        }
+
+        assertEquals(3, users.size());
+        assertEquals(9, posts);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithPostsByIdFetchesCollectionInOneQuery() {
+        User user = userRepository.findWithPostsById(userWithPosts.getId()).orElseThrow();
+
+        assertEquals(3, user.getPosts().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findUserFieldsSelectsColumnsWithoutLoadingEntities() {
+        Slice<User> users = userRepository.findUserFields(Set.of(UserFields.NAME), null, 2);
+
+        assertEquals(2, users.getContent().size());
+        assertTrue(users.hasNext());
+        assertNotNull(users.getContent().get(0).getId());
+        assertNotNull(users.getContent().get(0).getName());
+        assertNull(users.getContent().get(0).getBirthDate());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
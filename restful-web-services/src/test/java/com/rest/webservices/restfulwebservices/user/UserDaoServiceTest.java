@@ -0,0 +1,123 @@
+package com.rest.webservices.restfulwebservices.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDaoServiceTest {
+    private static final int THREADS = 8;
+    private static final int USERS_PER_THREAD = 500;
+
+    static Stream<Supplier<UserStore>> stores() {
+        return Stream.of(ConcurrentUserStore::new, CompactUserStore::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void concurrentSavesGetUniqueIdsAndAreAllVisible(Supplier<UserStore> store) throws Exception {
+        UserDaoService service = new UserDaoService(store.get());
+        int initialUsers = service.findAll().size();
+
+        List<Future<List<Integer>>> results = runConcurrently(() -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < USERS_PER_THREAD; i++) {
+                ids.add(service.save(new User(null, "User" + i, LocalDate.now().minusYears(20))).getId());
+            }
+            return ids;
+        });
+
+        Set<Integer> ids = new HashSet<>();
+        for (Future<List<Integer>> result : results) {
+            ids.addAll(result.get());
+        }
+
+        assertEquals(THREADS * USERS_PER_THREAD, ids.size());
+        assertEquals(initialUsers + THREADS * USERS_PER_THREAD, service.findAll().size());
+        for (Integer id : ids) {
+            assertEquals(id, service.findOne(id).getId());
+        }
+    }
+
+    @Test
+    void findAllReturnsConsistentSnapshotsWhileWriting() throws Exception {
+        UserDaoService service = new UserDaoService(new ConcurrentUserStore());
+
+        List<Future<Void>> results = runConcurrently(() -> {
+            for (int i = 0; i < USERS_PER_THREAD; i++) {
+                User user = service.save(new User(null, "User" + i, LocalDate.now().minusYears(20)));
+
+                List<User> snapshot = service.findAll();
+                assertTrue(snapshot.contains(user));
+                assertEquals(snapshot.size(), new HashSet<>(snapshot).size());
+
+                service.deleteById(user.getId());
+                assertNull(service.findOne(user.getId()));
+            }
+            return null;
+        });
+
+        for (Future<Void> result : results) {
+            result.get();
+        }
+
+        assertEquals(3, service.findAll().size());
+        assertThrows(UnsupportedOperationException.class, () -> service.findAll().clear());
+    }
+
+    @Test
+    void compactStoreRoundTripsFieldsAndSkipsDeletedRows() {
+        UserDaoService service = new UserDaoService(new CompactUserStore());
+        LocalDate birthDate = LocalDate.of(1990, 5, 17);
+
+        User saved = service.save(new User(null, "Adam", birthDate));
+        User noBirthDate = service.save(new User(null, "Zoe", null));
+        service.deleteById(1);
+
+        User found = service.findOne(saved.getId());
+        assertEquals("Adam", found.getName());
+        assertEquals(birthDate, found.getBirthDate());
+        assertNull(service.findOne(noBirthDate.getId()).getBirthDate());
+        assertNull(service.findOne(1));
+        assertNull(service.findOne(0));
+        assertEquals(4, service.findAll().size());
+    }
+
+    private static <T> List<Future<T>> runConcurrently(Callable<T> task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+            return futures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.rest.webservices.restfulwebservices.user;
+
+import com.rest.webservices.restfulwebservices.exception.ProblemResponses;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserResourceConditionalGetTest {
+    private UserDaoService service;
+
+    private UserResource resource;
+
+    @BeforeEach
+    void setUp() {
+        // O link para todos os usuários é montado a partir da requisição atual
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/users/1")));
+
+        service = new UserDaoService(new ConcurrentUserStore());
+        resource = new UserResource(service, new UserResponseCaching(Duration.ZERO),
+                new ProblemResponses(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void notModifiedWhenETagMatches() {
+        String etag = fetch().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> entity = resource.retrieveUser(1, null, new ServletWebRequest(request, response));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+        assertNull(entity.getBody());
+    }
+
+    @Test
+    void notModifiedWhenUnchangedSinceLastModified() {
+        String lastModified = fetch().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        ResponseEntity<?> entity = resource.retrieveUser(1, null, new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+    }
+
+    @Test
+    void etagChangesAfterUpdate() {
+        String etag = fetch().getHeader(HttpHeaders.ETAG);
+
+        service.save(new User(null, "Added", LocalDate.now().minusYears(18)));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> entity = resource.retrieveUser(1, null, new ServletWebRequest(request, response));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletResponse fetch() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<?> entity = resource.retrieveUser(1, null,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/users/1"), response));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        return response;
+    }
+}